@@ -0,0 +1,144 @@
+package com.taskmanager.chat.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Bounds concurrent completion calls with a limit that follows observed latency. A short-term average RTT
+// rising above the long-term one means requests are queueing upstream, so the limit shrinks in proportion;
+// while latency holds steady it grows by about sqrt(limit) per sample. A dropped call (error or timeout)
+// cuts the limit multiplicatively, AIMD style.
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final double shortRttFactor;
+    private final double longRttFactor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rejections;
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${openai.resilience.limiter.initial-limit:50}") int initialLimit,
+                                      @Value("${openai.resilience.limiter.min-limit:5}") int minLimit,
+                                      @Value("${openai.resilience.limiter.max-limit:500}") int maxLimit,
+                                      @Value("${openai.resilience.limiter.rtt-tolerance:1.5}") double tolerance,
+                                      @Value("${openai.resilience.limiter.smoothing:0.2}") double smoothing,
+                                      @Value("${openai.resilience.limiter.backoff-ratio:0.9}") double backoffRatio,
+                                      @Value("${openai.resilience.limiter.short-window:10}") int shortWindow,
+                                      @Value("${openai.resilience.limiter.long-window:600}") int longWindow) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.shortRttFactor = 2.0 / (shortWindow + 1);
+        this.longRttFactor = 2.0 / (longWindow + 1);
+
+        meterRegistry.gauge("chat.upstream.limit", this, AdaptiveConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("chat.upstream.inflight", inFlight);
+        this.rejections = meterRegistry.counter("chat.upstream.rejections", "reason", "limit");
+    }
+
+    // Returns null when the limit is reached; otherwise exactly one of the permit's outcome methods must be called
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                rejections.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) * shortRttFactor;
+        longRttNanos += (rttNanos - longRttNanos) * longRttFactor;
+
+        // After a sustained slowdown the long-term average would keep the limit pinned down; let it catch up
+        if (longRttNanos > shortRttNanos * 2) {
+            longRttNanos *= 0.95;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+
+        // With most of the limit unused there is no evidence it is too low
+        if (newLimit > limit && inFlightAtStart * 2 < limit) {
+            return;
+        }
+        update(limit * (1 - smoothing) + newLimit * smoothing);
+    }
+
+    private synchronized void onDrop() {
+        update(limit * backoffRatio);
+    }
+
+    private void update(double newLimit) {
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public class Permit {
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void onSuccess() {
+            if (release()) {
+                onSample(System.nanoTime() - startNanos, inFlightAtStart);
+            }
+        }
+
+        public void onDropped() {
+            if (release()) {
+                onDrop();
+            }
+        }
+
+        // The call ended without saying anything about upstream capacity, e.g. the client went away
+        public void onIgnored() {
+            release();
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.taskmanager.chat.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.taskmanager.chat.dto.OpenAIRequest;
 import com.taskmanager.chat.dto.OpenAIResponse;
+import com.taskmanager.chat.exception.UpstreamUnavailableException;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 @Service
@@ -24,48 +36,184 @@ public class OpenAIClient {
     @Value("${openai.api.enabled:false}")
     private boolean apiEnabled;
 
+    @Value("${openai.api.model:gpt-3.5-turbo}")
+    private String model;
+
+    // Upper bound for a whole non-streaming completion, on top of the per-phase timeouts in WebClientConfig
+    @Value("${openai.http.completion-timeout-ms:60000}")
+    private long completionTimeoutMs;
+
+    @Value("${openai.mock.chunk-delay-ms:40}")
+    private long mockChunkDelayMs;
+
+    // Byte-identical on every request so the provider can reuse its cached processing of the prompt prefix;
+    // anything per-request (context, history) follows it in separate messages
+    private static final String SYSTEM_PROMPT = "You are a helpful AI assistant for a task management application. "
+            + "You help users with task organization, productivity tips, time management, and general task-related questions. "
+            + "Keep your responses concise, helpful, and relevant to task management and productivity. "
+            + "If asked about features outside of task management, politely redirect the conversation back to productivity and task management topics.";
+
+    private static final String STREAM_DONE = "[DONE]";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_TYPE =
+            new ParameterizedTypeReference<ServerSentEvent<String>>() {};
+
     private final WebClient webClient;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final UpstreamCircuitBreaker circuitBreaker;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
-    public OpenAIClient() {
-        this.webClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
-                .build();
+    public OpenAIClient(@Qualifier("openAIWebClient") WebClient webClient,
+                        AdaptiveConcurrencyLimiter limiter,
+                        UpstreamCircuitBreaker circuitBreaker) {
+        this.webClient = webClient;
+        this.limiter = limiter;
+        this.circuitBreaker = circuitBreaker;
     }
 
     public Mono<String> getChatCompletion(String userMessage, String context) {
+        return getChatCompletion(userMessage, context, Collections.emptyList());
+    }
+
+    // history: earlier turns of the conversation, oldest first, as built by ConversationContextBuilder
+    public Mono<String> getChatCompletion(String userMessage, String context, List<OpenAIRequest.Message> history) {
         if (!apiEnabled) {
             return Mono.just(getMockResponse(userMessage));
         }
 
-        List<OpenAIRequest.Message> messages = buildMessages(userMessage, context);
+        List<OpenAIRequest.Message> messages = buildMessages(userMessage, context, history);
 
         OpenAIRequest request = new OpenAIRequest(
-                "gpt-3.5-turbo",
+                model,
                 messages,
                 0.7,
                 500
         );
 
-        return webClient.post()
+        Mono<String> completion = webClient.post()
                 .uri(apiUrl)
                 .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
                 .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .bodyValue(request)
                 .retrieve()
                 .bodyToMono(OpenAIResponse.class)
-                .map(this::extractResponse)
-                .onErrorResume(error -> {
-                    System.err.println("OpenAI API Error: " + error.getMessage());
-                    return Mono.just("I apologize, but I'm currently unable to process your request. Please try again later or contact support.");
-                });
+                .timeout(Duration.ofMillis(completionTimeoutMs))
+                .map(this::extractResponse);
+
+        return guarded(completion.flux())
+                .singleOrEmpty()
+                // Errors reach the caller, which decides on the fallback and keeps it out of the response cache
+                .doOnError(error -> !(error instanceof UpstreamUnavailableException),
+                        error -> System.err.println("OpenAI API Error: " + error));
+    }
+
+    public String getModel() {
+        return apiEnabled ? model : "mock";
+    }
+
+    // Emits the completion as content deltas while the provider generates it; errors are left to the caller,
+    // which knows how much was already relayed
+    public Flux<String> streamChatCompletion(String userMessage, String context) {
+        return streamChatCompletion(userMessage, context, Collections.emptyList());
+    }
+
+    public Flux<String> streamChatCompletion(String userMessage, String context, List<OpenAIRequest.Message> history) {
+        if (!apiEnabled) {
+            return Flux.fromIterable(splitIntoChunks(getMockResponse(userMessage)))
+                    .delayElements(Duration.ofMillis(mockChunkDelayMs));
+        }
+
+        OpenAIRequest request = new OpenAIRequest(
+                model,
+                buildMessages(userMessage, context, history),
+                0.7,
+                500
+        );
+        request.setStream(true);
+
+        return guarded(webClient.post()
+                .uri(apiUrl)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(SSE_TYPE)
+                .map(ServerSentEvent::data)
+                .takeWhile(data -> !STREAM_DONE.equals(data))
+                .concatMapIterable(this::extractDeltas));
+    }
+
+    // Bulkhead around an upstream call: the circuit breaker fails fast while the upstream is down, and the
+    // adaptive limiter caps how many calls may be outstanding at once. Rejections surface as
+    // UpstreamUnavailableException without touching the network.
+    private <T> Flux<T> guarded(Flux<T> call) {
+        return Flux.defer(() -> {
+            UpstreamCircuitBreaker.Permit circuit = circuitBreaker.tryAcquire();
+            if (circuit == null) {
+                return Flux.error(new UpstreamUnavailableException("Completions circuit breaker is open"));
+            }
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+            if (permit == null) {
+                circuit.onIgnored();
+                return Flux.error(new UpstreamUnavailableException("Completions concurrency limit reached"));
+            }
+
+            return call
+                    .doOnComplete(() -> {
+                        permit.onSuccess();
+                        circuit.onSuccess();
+                    })
+                    .doOnError(error -> {
+                        if (isUpstreamFailure(error)) {
+                            permit.onDropped();
+                            circuit.onFailure();
+                        } else {
+                            // The upstream answered, it just rejected this particular request
+                            permit.onIgnored();
+                            circuit.onSuccess();
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        permit.onIgnored();
+                        circuit.onIgnored();
+                    });
+        });
     }
 
-    private List<OpenAIRequest.Message> buildMessages(String userMessage, String context) {
-        List<OpenAIRequest.Message> messages = new ArrayList<>();
+    private boolean isUpstreamFailure(Throwable error) {
+        if (error instanceof WebClientResponseException responseError) {
+            HttpStatus status = HttpStatus.resolve(responseError.getStatusCode().value());
+            return status == null || status.is5xxServerError() || status == HttpStatus.TOO_MANY_REQUESTS;
+        }
+        return true;
+    }
+
+    // Splits text into word-sized pieces, keeping whitespace, the way providers emit deltas
+    public static List<String> splitIntoChunks(String text) {
+        List<String> chunks = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= text.length(); i++) {
+            if (i == text.length() || (text.charAt(i) == ' ' && text.charAt(i - 1) != ' ')) {
+                chunks.add(text.substring(start, i));
+                start = i;
+            }
+        }
+        return chunks;
+    }
+
+    // Ordered from most to least stable: fixed system prompt, conversation history (which only grows), then the
+    // per-request context and the new message
+    private List<OpenAIRequest.Message> buildMessages(String userMessage, String context, List<OpenAIRequest.Message> history) {
+        List<OpenAIRequest.Message> messages = new ArrayList<>(history.size() + 3);
 
         // System message to define the AI assistant's role
-        String systemMessage = buildSystemMessage(context);
-        messages.add(new OpenAIRequest.Message("system", systemMessage));
+        messages.add(new OpenAIRequest.Message("system", SYSTEM_PROMPT));
+        messages.addAll(history);
+
+        if (context != null && !context.trim().isEmpty()) {
+            messages.add(new OpenAIRequest.Message("system", "Context: " + context));
+        }
 
         // User message
         messages.add(new OpenAIRequest.Message("user", userMessage));
@@ -73,19 +221,25 @@ public class OpenAIClient {
         return messages;
     }
 
-    private String buildSystemMessage(String context) {
-        StringBuilder systemMessage = new StringBuilder();
-        systemMessage.append("You are a helpful AI assistant for a task management application. ");
-        systemMessage.append("You help users with task organization, productivity tips, time management, and general task-related questions. ");
-        systemMessage.append("Keep your responses concise, helpful, and relevant to task management and productivity. ");
-
-        if (context != null && !context.trim().isEmpty()) {
-            systemMessage.append("Context: ").append(context).append(" ");
+    private List<String> extractDeltas(String data) {
+        List<String> deltas = new ArrayList<>(1);
+        if (data == null || data.isEmpty()) {
+            return deltas;
         }
 
-        systemMessage.append("If asked about features outside of task management, politely redirect the conversation back to productivity and task management topics.");
-
-        return systemMessage.toString();
+        try {
+            OpenAIResponse chunk = objectMapper.readValue(data, OpenAIResponse.class);
+            if (chunk.getChoices() != null) {
+                for (OpenAIResponse.Choice choice : chunk.getChoices()) {
+                    if (choice.getDelta() != null && choice.getDelta().getContent() != null) {
+                        deltas.add(choice.getDelta().getContent());
+                    }
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Malformed completion chunk: " + e.getOriginalMessage());
+        }
+        return deltas;
     }
 
     private String extractResponse(OpenAIResponse response) {
@@ -95,10 +249,10 @@ public class OpenAIClient {
                 return firstChoice.getMessage().getContent().trim();
             }
         }
-        return "I'm sorry, I couldn't generate a proper response. Please try rephrasing your question.";
+        throw new RuntimeException("Completion response contained no message");
     }
 
-    private String getMockResponse(String userMessage) {
+    public String getMockResponse(String userMessage) {
         String lowerMessage = userMessage.toLowerCase();
 
         if (lowerMessage.contains("task") && lowerMessage.contains("create")) {
@@ -0,0 +1,40 @@
+package com.taskmanager.chat.client;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingResult;
+import com.taskmanager.chat.dto.OpenAIRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Counts tokens locally with the model's BPE vocabulary, so prompt sizes are known before anything is sent
+@Component
+public class TokenCounter {
+
+    // Framing the chat format adds around every message (role and separators)
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+
+    private final Encoding encoding;
+
+    public TokenCounter(@Value("${openai.tokenizer.encoding:cl100k_base}") String encodingName) {
+        this.encoding = Encodings.newLazyEncodingRegistry().getEncoding(encodingName)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown tokenizer encoding: " + encodingName));
+    }
+
+    public int count(String text) {
+        // User text may contain special-token markers; they are counted as plain text, as the API bills them
+        return text == null || text.isEmpty() ? 0 : encoding.countTokensOrdinary(text);
+    }
+
+    public int count(OpenAIRequest.Message message) {
+        return MESSAGE_OVERHEAD_TOKENS + count(message.getContent());
+    }
+
+    public String truncate(String text, int maxTokens) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        EncodingResult result = encoding.encodeOrdinary(text, maxTokens);
+        return result.isTruncated() ? encoding.decode(result.getTokens()) + "..." : text;
+    }
+}
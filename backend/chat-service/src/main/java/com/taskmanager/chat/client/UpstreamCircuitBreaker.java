@@ -0,0 +1,153 @@
+package com.taskmanager.chat.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Count-based circuit breaker for the completions upstream. It opens when the failure rate over the last
+// window-size calls crosses the threshold, rejects calls for open-duration-ms, then lets a few probe calls
+// through: all probes succeeding closes it again, any probe failing reopens it.
+@Component
+public class UpstreamCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationMs;
+    private final int halfOpenProbes;
+    private final Counter rejections;
+
+    private volatile State state = State.CLOSED;
+    // Bumped on every transition so outcomes of calls admitted under an earlier state are not miscounted
+    private long generation;
+    private int recorded;
+    private int failures;
+    private int next;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public UpstreamCircuitBreaker(MeterRegistry meterRegistry,
+                                  @Value("${openai.resilience.circuit-breaker.window-size:20}") int windowSize,
+                                  @Value("${openai.resilience.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                                  @Value("${openai.resilience.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                                  @Value("${openai.resilience.circuit-breaker.open-duration-ms:10000}") long openDurationMs,
+                                  @Value("${openai.resilience.circuit-breaker.half-open-probes:3}") int halfOpenProbes) {
+        this.outcomes = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenProbes = halfOpenProbes;
+
+        // 0 = closed, 1 = open, 2 = half-open
+        meterRegistry.gauge("chat.upstream.circuit.state", this, breaker -> breaker.getState().ordinal());
+        this.rejections = meterRegistry.counter("chat.upstream.rejections", "reason", "circuit_open");
+    }
+
+    // Returns null while the circuit rejects calls; otherwise exactly one of the permit's outcome methods must be called
+    public synchronized Permit tryAcquire() {
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openDurationMs) {
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.CLOSED) {
+            return new Permit(generation, false);
+        }
+        if (state == State.HALF_OPEN && probesInFlight < halfOpenProbes) {
+            probesInFlight++;
+            return new Permit(generation, true);
+        }
+
+        rejections.increment();
+        return null;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private synchronized void onOutcome(Permit permit, boolean failed) {
+        if (permit.generation != generation) {
+            return;
+        }
+
+        if (permit.probe) {
+            probesInFlight--;
+            if (failed) {
+                transitionTo(State.OPEN);
+            } else if (++probeSuccesses >= halfOpenProbes) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+
+        if (recorded == outcomes.length) {
+            failures -= outcomes[next] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        failures += failed ? 1 : 0;
+        next = (next + 1) % outcomes.length;
+
+        if (recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    private synchronized void onIgnored(Permit permit) {
+        if (permit.probe && permit.generation == generation) {
+            probesInFlight--;
+        }
+    }
+
+    private void transitionTo(State newState) {
+        System.out.println("Completions circuit breaker " + state + " -> " + newState);
+        state = newState;
+        generation++;
+        recorded = 0;
+        failures = 0;
+        next = 0;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (newState == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public class Permit {
+        private final long generation;
+        private final boolean probe;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        private Permit(long generation, boolean probe) {
+            this.generation = generation;
+            this.probe = probe;
+        }
+
+        public void onSuccess() {
+            if (done.compareAndSet(false, true)) {
+                onOutcome(this, false);
+            }
+        }
+
+        public void onFailure() {
+            if (done.compareAndSet(false, true)) {
+                onOutcome(this, true);
+            }
+        }
+
+        public void onIgnored() {
+            if (done.compareAndSet(false, true)) {
+                UpstreamCircuitBreaker.this.onIgnored(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.taskmanager.chat.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Configuration
+public class WebClientConfig {
+
+    // Dedicated pool so completion calls cannot starve, or be starved by, other WebClient users.
+    // With metrics enabled Reactor Netty publishes reactor.netty.connection.provider.* gauges (active, idle,
+    // pending) and the pending-acquire time, tagged with the pool name.
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider openAIConnectionProvider(
+            @Value("${openai.http.pool.max-connections:500}") int maxConnections,
+            @Value("${openai.http.pool.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${openai.http.pool.pending-acquire-timeout-ms:5000}") long pendingAcquireTimeoutMs,
+            @Value("${openai.http.pool.max-idle-time-ms:30000}") long maxIdleTimeMs,
+            @Value("${openai.http.pool.max-life-time-ms:300000}") long maxLifeTimeMs,
+            @Value("${openai.http.pool.evict-interval-ms:10000}") long evictIntervalMs) {
+        return ConnectionProvider.builder("openai")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(evictIntervalMs))
+                .lifo()
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient openAIWebClient(
+            ConnectionProvider openAIConnectionProvider,
+            @Value("${openai.http.connect-timeout-ms:3000}") int connectTimeoutMs,
+            @Value("${openai.http.response-timeout-ms:30000}") long responseTimeoutMs,
+            @Value("${openai.http.write-timeout-ms:10000}") long writeTimeoutMs,
+            @Value("${openai.http.protocols:H2,HTTP11}") String protocols,
+            @Value("${openai.http.max-in-memory-size:1048576}") int maxInMemorySize) {
+        HttpClient httpClient = HttpClient.create(openAIConnectionProvider)
+                // HTTP/2 is negotiated through ALPN on TLS endpoints; plain http URLs stay on HTTP/1.1
+                .protocol(Arrays.stream(protocols.split(","))
+                        .map(String::trim)
+                        .map(HttpProtocol::valueOf)
+                        .toArray(HttpProtocol[]::new))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                // Longest silence allowed while waiting for, or reading, a response; also bounds gaps in a stream
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new WriteTimeoutHandler(writeTimeoutMs, TimeUnit.MILLISECONDS)))
+                // Request-level timings (connect, TLS, response time) as reactor.netty.http.client.* meters
+                .metrics(true, Function.identity());
+
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(maxInMemorySize))
+                .build();
+    }
+}
@@ -6,8 +6,12 @@ import com.taskmanager.chat.entity.ChatSession;
 import com.taskmanager.chat.service.ChatService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.List;
@@ -21,52 +25,63 @@ public class ChatController {
     private ChatService chatService;
 
     @PostMapping("/message")
-    public ResponseEntity<ChatResponse> sendMessage(@Valid @RequestBody ChatRequest request,
-                                                   @RequestHeader("X-User-Id") Long userId) {
-        ChatResponse response = chatService.sendMessage(request, userId);
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<ChatResponse>> sendMessage(@Valid @RequestBody ChatRequest request,
+                                                         @RequestHeader("X-User-Id") Long userId) {
+        return chatService.sendMessage(request, userId)
+                .map(ResponseEntity::ok);
     }
 
-    @PostMapping("/session/new")
-    public ResponseEntity<Map<String, String>> createNewSession(@RequestHeader("X-User-Id") Long userId) {
-        String sessionId = chatService.createNewSession(userId);
+    @PostMapping(value = "/message/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamMessage(@Valid @RequestBody ChatRequest request,
+                                                       @RequestHeader("X-User-Id") Long userId) {
+        return chatService.streamMessage(request, userId);
+    }
 
-        Map<String, String> response = new HashMap<>();
-        response.put("sessionId", sessionId);
-        response.put("message", "New chat session created");
-        return ResponseEntity.ok(response);
+    @PostMapping("/session/new")
+    public Mono<ResponseEntity<Map<String, String>>> createNewSession(@RequestHeader("X-User-Id") Long userId) {
+        return chatService.createNewSession(userId)
+                .map(sessionId -> {
+                    Map<String, String> response = new HashMap<>();
+                    response.put("sessionId", sessionId);
+                    response.put("message", "New chat session created");
+                    return ResponseEntity.ok(response);
+                });
     }
 
     @GetMapping("/sessions")
-    public ResponseEntity<List<ChatSession>> getUserSessions(@RequestHeader("X-User-Id") Long userId) {
-        List<ChatSession> sessions = chatService.getUserSessions(userId);
-        return ResponseEntity.ok(sessions);
+    public Mono<ResponseEntity<List<ChatSession>>> getUserSessions(@RequestHeader("X-User-Id") Long userId,
+                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                   @RequestParam(defaultValue = "20") int size) {
+        return chatService.getUserSessions(userId, page, size)
+                .map(ResponseEntity::ok);
     }
 
     @GetMapping("/session/{sessionId}/messages")
-    public ResponseEntity<List<ChatResponse>> getSessionMessages(@PathVariable String sessionId,
-                                                               @RequestHeader("X-User-Id") Long userId) {
-        List<ChatResponse> messages = chatService.getSessionMessages(sessionId, userId);
-        return ResponseEntity.ok(messages);
+    public Mono<ResponseEntity<List<ChatResponse>>> getSessionMessages(@PathVariable String sessionId,
+                                                                     @RequestHeader("X-User-Id") Long userId) {
+        return chatService.getSessionMessages(sessionId, userId)
+                .map(ResponseEntity::ok);
     }
 
     @DeleteMapping("/session/{sessionId}")
-    public ResponseEntity<Map<String, String>> deleteSession(@PathVariable String sessionId,
-                                                            @RequestHeader("X-User-Id") Long userId) {
-        chatService.deleteSession(sessionId, userId);
-
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "Session deleted successfully");
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<Map<String, String>>> deleteSession(@PathVariable String sessionId,
+                                                                  @RequestHeader("X-User-Id") Long userId) {
+        return chatService.deleteSession(sessionId, userId)
+                .then(Mono.fromSupplier(() -> {
+                    Map<String, String> response = new HashMap<>();
+                    response.put("message", "Session deleted successfully");
+                    return ResponseEntity.ok(response);
+                }));
     }
 
     @DeleteMapping("/sessions/clear")
-    public ResponseEntity<Map<String, String>> clearUserSessions(@RequestHeader("X-User-Id") Long userId) {
-        chatService.clearUserSessions(userId);
-
-        Map<String, String> response = new HashMap<>();
-        response.put("message", "All chat sessions cleared successfully");
-        return ResponseEntity.ok(response);
+    public Mono<ResponseEntity<Map<String, String>>> clearUserSessions(@RequestHeader("X-User-Id") Long userId) {
+        return chatService.clearUserSessions(userId)
+                .then(Mono.fromSupplier(() -> {
+                    Map<String, String> response = new HashMap<>();
+                    response.put("message", "All chat sessions cleared successfully");
+                    return ResponseEntity.ok(response);
+                }));
     }
 
     @GetMapping("/help")
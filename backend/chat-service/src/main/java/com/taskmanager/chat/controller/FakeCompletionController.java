@@ -0,0 +1,86 @@
+package com.taskmanager.chat.controller;
+
+import com.taskmanager.chat.client.OpenAIClient;
+import com.taskmanager.chat.dto.OpenAIRequest;
+import com.taskmanager.chat.dto.OpenAIResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+// Local stand-in for the completions API, for exercising the real client and streaming path without a key.
+// Point openai.api.url at /fake-openai/v1/chat/completions on this service to use it.
+@RestController
+@RequestMapping("/fake-openai/v1/chat/completions")
+@ConditionalOnProperty(name = "openai.fake-provider.enabled", havingValue = "true")
+public class FakeCompletionController {
+
+    private static final String MODEL = "fake-gpt";
+
+    @Autowired
+    private OpenAIClient openAIClient;
+
+    @Value("${openai.fake-provider.first-chunk-delay-ms:300}")
+    private long firstChunkDelayMs;
+
+    @Value("${openai.fake-provider.chunk-delay-ms:40}")
+    private long chunkDelayMs;
+
+    @PostMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE, headers = "Accept=text/event-stream")
+    public Flux<ServerSentEvent<Object>> streamCompletion(@RequestBody OpenAIRequest request) {
+        Flux<ServerSentEvent<Object>> chunks = Flux.fromIterable(OpenAIClient.splitIntoChunks(answer(request)))
+                .delayElements(Duration.ofMillis(chunkDelayMs))
+                .map(content -> ServerSentEvent.<Object>builder(response(null, content, null)).build());
+
+        return Mono.delay(Duration.ofMillis(firstChunkDelayMs))
+                .thenMany(chunks)
+                .concatWithValues(
+                        ServerSentEvent.<Object>builder(response(null, null, "stop")).build(),
+                        ServerSentEvent.<Object>builder("[DONE]").build());
+    }
+
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<OpenAIResponse> completion(@RequestBody OpenAIRequest request) {
+        String answer = answer(request);
+        long generationMs = firstChunkDelayMs + chunkDelayMs * OpenAIClient.splitIntoChunks(answer).size();
+
+        return Mono.delay(Duration.ofMillis(generationMs))
+                .thenReturn(response(answer, null, "stop"));
+    }
+
+    private String answer(OpenAIRequest request) {
+        List<OpenAIRequest.Message> messages = request.getMessages() != null ? request.getMessages() : Collections.emptyList();
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if ("user".equals(messages.get(i).getRole())) {
+                return openAIClient.getMockResponse(messages.get(i).getContent());
+            }
+        }
+        return openAIClient.getMockResponse("");
+    }
+
+    private OpenAIResponse response(String content, String delta, String finishReason) {
+        OpenAIResponse.Choice choice = new OpenAIResponse.Choice();
+        choice.setFinish_reason(finishReason);
+        if (content != null) {
+            choice.setMessage(new OpenAIRequest.Message("assistant", content));
+        }
+        if (delta != null) {
+            choice.setDelta(new OpenAIRequest.Message(null, delta));
+        }
+
+        OpenAIResponse response = new OpenAIResponse();
+        response.setObject(content != null ? "chat.completion" : "chat.completion.chunk");
+        response.setModel(MODEL);
+        response.setCreated(System.currentTimeMillis() / 1000);
+        response.setChoices(Collections.singletonList(choice));
+        return response;
+    }
+}
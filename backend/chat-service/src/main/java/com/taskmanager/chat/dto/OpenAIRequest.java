@@ -7,6 +7,7 @@ public class OpenAIRequest {
     private List<Message> messages;
     private double temperature;
     private int max_tokens;
+    private boolean stream;
 
     // Constructors
     public OpenAIRequest() {}
@@ -51,6 +52,14 @@ public class OpenAIRequest {
         this.max_tokens = max_tokens;
     }
 
+    public boolean isStream() {
+        return stream;
+    }
+
+    public void setStream(boolean stream) {
+        this.stream = stream;
+    }
+
     public static class Message {
         private String role;
         private String content;
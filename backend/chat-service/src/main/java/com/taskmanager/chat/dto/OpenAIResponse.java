@@ -65,6 +65,7 @@ public class OpenAIResponse {
     public static class Choice {
         private int index;
         private OpenAIRequest.Message message;
+        private OpenAIRequest.Message delta;
         private String finish_reason;
 
         // Constructors
@@ -87,6 +88,14 @@ public class OpenAIResponse {
             this.message = message;
         }
 
+        public OpenAIRequest.Message getDelta() {
+            return delta;
+        }
+
+        public void setDelta(OpenAIRequest.Message delta) {
+            this.delta = delta;
+        }
+
         public String getFinish_reason() {
             return finish_reason;
         }
@@ -1,14 +1,10 @@
 package com.taskmanager.chat.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
-import org.springframework.data.annotation.Id;
-import org.springframework.data.redis.core.RedisHash;
 
 import java.time.LocalDateTime;
 
-@RedisHash(value = "ChatMessage", timeToLive = 86400) // 24 hours TTL
 public class ChatMessage {
-    @Id
     private String id;
 
     private Long userId;
@@ -1,21 +1,15 @@
 package com.taskmanager.chat.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
-import org.springframework.data.annotation.Id;
-import org.springframework.data.redis.core.RedisHash;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
-@RedisHash(value = "ChatSession", timeToLive = 86400) // 24 hours TTL
 public class ChatSession {
-    @Id
     private String sessionId;
 
     private Long userId;
     private String title;
-    private List<String> messageIds;
+    private int messageCount;
 
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime createdAt;
@@ -29,7 +23,6 @@ public class ChatSession {
     public ChatSession() {
         this.createdAt = LocalDateTime.now();
         this.lastActivityAt = LocalDateTime.now();
-        this.messageIds = new ArrayList<>();
         this.isActive = true;
     }
 
@@ -65,20 +58,12 @@ public class ChatSession {
         this.title = title;
     }
 
-    public List<String> getMessageIds() {
-        return messageIds;
+    public int getMessageCount() {
+        return messageCount;
     }
 
-    public void setMessageIds(List<String> messageIds) {
-        this.messageIds = messageIds;
-    }
-
-    public void addMessageId(String messageId) {
-        if (this.messageIds == null) {
-            this.messageIds = new ArrayList<>();
-        }
-        this.messageIds.add(messageId);
-        this.lastActivityAt = LocalDateTime.now();
+    public void setMessageCount(int messageCount) {
+        this.messageCount = messageCount;
     }
 
     public LocalDateTime getCreatedAt() {
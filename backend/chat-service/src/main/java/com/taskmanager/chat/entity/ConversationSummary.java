@@ -0,0 +1,36 @@
+package com.taskmanager.chat.entity;
+
+// Rolling digest of the exchanges that no longer fit in a session's context window
+public class ConversationSummary {
+    private String text;
+
+    // Position in the session's message list up to which (exclusive) messages are folded into the text
+    private long coveredUntil;
+
+    // Constructors
+    public ConversationSummary() {
+        this.text = "";
+    }
+
+    public ConversationSummary(String text, long coveredUntil) {
+        this.text = text;
+        this.coveredUntil = coveredUntil;
+    }
+
+    // Getters and Setters
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public long getCoveredUntil() {
+        return coveredUntil;
+    }
+
+    public void setCoveredUntil(long coveredUntil) {
+        this.coveredUntil = coveredUntil;
+    }
+}
@@ -0,0 +1,229 @@
+package com.taskmanager.chat.repository;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskmanager.chat.entity.ChatMessage;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+// Compact binary form of a ChatMessage for the per-session message lists. Layout (version 1):
+//   byte     version
+//   byte     flags (FLAG_*)
+//   byte     type ordinal, 0xFF for none
+//   varlong  timestamp epoch seconds (UTC, zigzag), varint nanos
+//   id       16 bytes when a UUID, otherwise a string
+//   varlong  userId (zigzag), present with FLAG_HAS_USER_ID
+//   session  16 bytes when a UUID, otherwise a string
+//   string   message
+//   string   response
+// A string is varint(byte length + 1), 0 meaning null, then UTF-8 bytes; an LZ4 string also carries
+// varint(raw length) before the compressed bytes. Values written before this format (JSON, starting
+// with '{') are still read.
+@Component
+public class ChatMessageCodec {
+
+    private static final byte VERSION_1 = 1;
+
+    private static final int FLAG_FROM_USER = 1;
+    private static final int FLAG_ID_UUID = 1 << 1;
+    private static final int FLAG_SESSION_UUID = 1 << 2;
+    private static final int FLAG_MESSAGE_LZ4 = 1 << 3;
+    private static final int FLAG_RESPONSE_LZ4 = 1 << 4;
+    private static final int FLAG_HAS_USER_ID = 1 << 5;
+
+    private static final int NO_TYPE = 0xFF;
+    private static final ChatMessage.MessageType[] TYPES = ChatMessage.MessageType.values();
+
+    private final boolean compressionEnabled;
+    private final int compressionThreshold;
+    private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+    private final GenericJackson2JsonRedisSerializer legacySerializer = new GenericJackson2JsonRedisSerializer();
+
+    public ChatMessageCodec(@Value("${app.chat.storage.compression.enabled:true}") boolean compressionEnabled,
+                            @Value("${app.chat.storage.compression.threshold-bytes:512}") int compressionThreshold) {
+        this.compressionEnabled = compressionEnabled;
+        this.compressionThreshold = compressionThreshold;
+        legacySerializer.configure(objectMapper -> objectMapper.registerModule(new JavaTimeModule()));
+    }
+
+    public byte[] encode(ChatMessage message) {
+        byte[] messageBytes = utf8(message.getMessage());
+        byte[] responseBytes = utf8(message.getResponse());
+        byte[] compressedMessage = compress(messageBytes);
+        byte[] compressedResponse = compress(responseBytes);
+        UUID id = parseUuid(message.getId());
+        UUID sessionId = parseUuid(message.getSessionId());
+
+        int flags = (message.isFromUser() ? FLAG_FROM_USER : 0)
+                | (id != null ? FLAG_ID_UUID : 0)
+                | (sessionId != null ? FLAG_SESSION_UUID : 0)
+                | (compressedMessage != null ? FLAG_MESSAGE_LZ4 : 0)
+                | (compressedResponse != null ? FLAG_RESPONSE_LZ4 : 0)
+                | (message.getUserId() != null ? FLAG_HAS_USER_ID : 0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64
+                + (messageBytes != null ? messageBytes.length : 0)
+                + (responseBytes != null ? responseBytes.length : 0));
+        out.write(VERSION_1);
+        out.write(flags);
+        out.write(message.getType() != null ? message.getType().ordinal() : NO_TYPE);
+
+        LocalDateTime timestamp = message.getTimestamp();
+        writeVarLong(out, zigzag(timestamp.toEpochSecond(ZoneOffset.UTC)));
+        writeVarLong(out, timestamp.getNano());
+
+        writeIdentifier(out, id, message.getId());
+        if (message.getUserId() != null) {
+            writeVarLong(out, zigzag(message.getUserId()));
+        }
+        writeIdentifier(out, sessionId, message.getSessionId());
+        writeText(out, messageBytes, compressedMessage);
+        writeText(out, responseBytes, compressedResponse);
+        return out.toByteArray();
+    }
+
+    public ChatMessage decode(byte[] bytes) {
+        if (bytes.length > 0 && bytes[0] == '{') {
+            return (ChatMessage) legacySerializer.deserialize(bytes);
+        }
+
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        byte version = in.get();
+        if (version != VERSION_1) {
+            throw new IllegalStateException("Unsupported chat message encoding version " + version);
+        }
+
+        int flags = in.get() & 0xFF;
+        int type = in.get() & 0xFF;
+
+        ChatMessage message = new ChatMessage();
+        message.setFromUser((flags & FLAG_FROM_USER) != 0);
+        message.setType(type != NO_TYPE ? TYPES[type] : null);
+        message.setTimestamp(LocalDateTime.ofEpochSecond(unzigzag(readVarLong(in)), (int) readVarLong(in), ZoneOffset.UTC));
+        message.setId(readIdentifier(in, (flags & FLAG_ID_UUID) != 0));
+        if ((flags & FLAG_HAS_USER_ID) != 0) {
+            message.setUserId(unzigzag(readVarLong(in)));
+        }
+        message.setSessionId(readIdentifier(in, (flags & FLAG_SESSION_UUID) != 0));
+        message.setMessage(readText(in, (flags & FLAG_MESSAGE_LZ4) != 0));
+        message.setResponse(readText(in, (flags & FLAG_RESPONSE_LZ4) != 0));
+        return message;
+    }
+
+    // Only long texts are compressed, and only when that actually saves space
+    private byte[] compress(byte[] raw) {
+        if (!compressionEnabled || raw == null || raw.length < compressionThreshold) {
+            return null;
+        }
+        byte[] buffer = new byte[compressor.maxCompressedLength(raw.length)];
+        int length = compressor.compress(raw, 0, raw.length, buffer, 0, buffer.length);
+        return length < raw.length ? Arrays.copyOf(buffer, length) : null;
+    }
+
+    private void writeIdentifier(ByteArrayOutputStream out, UUID uuid, String raw) {
+        if (uuid != null) {
+            writeLong(out, uuid.getMostSignificantBits());
+            writeLong(out, uuid.getLeastSignificantBits());
+        } else {
+            writeText(out, utf8(raw), null);
+        }
+    }
+
+    private String readIdentifier(ByteBuffer in, boolean uuid) {
+        return uuid ? new UUID(in.getLong(), in.getLong()).toString() : readText(in, false);
+    }
+
+    private void writeText(ByteArrayOutputStream out, byte[] raw, byte[] compressed) {
+        if (raw == null) {
+            writeVarLong(out, 0);
+        } else if (compressed != null) {
+            writeVarLong(out, compressed.length + 1L);
+            writeVarLong(out, raw.length);
+            out.write(compressed, 0, compressed.length);
+        } else {
+            writeVarLong(out, raw.length + 1L);
+            out.write(raw, 0, raw.length);
+        }
+    }
+
+    private String readText(ByteBuffer in, boolean compressed) {
+        int length = (int) readVarLong(in) - 1;
+        if (length < 0) {
+            return null;
+        }
+
+        if (compressed) {
+            byte[] raw = new byte[(int) readVarLong(in)];
+            decompressor.decompress(in.array(), in.position(), raw, 0, raw.length);
+            in.position(in.position() + length);
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+
+        String text = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return text;
+    }
+
+    private static byte[] utf8(String text) {
+        return text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static UUID parseUuid(String value) {
+        if (value == null || value.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            // Only canonical lower-case forms round-trip through the 16-byte encoding
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed varint in chat message");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,289 @@
+package com.taskmanager.chat.repository;
+
+import com.taskmanager.chat.entity.ChatMessage;
+import com.taskmanager.chat.entity.ChatSession;
+import com.taskmanager.chat.entity.ConversationSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.ReactiveRedisConnection;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Redis layout for chat history:
+//   chat:session:{id}   hash with the session fields
+//   chat:messages:{id}  list of the session's messages in order
+//   chat:summary:{id}        hash with the rolling summary of exchanges outside the context window
+//   chat:user_sessions:{uid} sorted set of the user's session ids scored by last activity (epoch millis)
+// History is one LRANGE, appending a message is one script call and a session goes away with one UNLINK.
+// All keys carry the session time to live, pushed forward on every message, so a session's score is also
+// its expiry: ids scored before now minus the time to live are expired and never read back.
+@Repository
+public class ChatSessionRepository {
+
+    private static final String SESSION_KEY_PREFIX = "chat:session:";
+    private static final String MESSAGES_KEY_PREFIX = "chat:messages:";
+    private static final String SUMMARY_KEY_PREFIX = "chat:summary:";
+    private static final String USER_SESSIONS_KEY_PREFIX = "chat:user_sessions:";
+
+    private static final String FIELD_SESSION_ID = "sessionId";
+    private static final String FIELD_USER_ID = "userId";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_MESSAGE_COUNT = "messageCount";
+    private static final String FIELD_CREATED_AT = "createdAt";
+    private static final String FIELD_LAST_ACTIVITY_AT = "lastActivityAt";
+    private static final String FIELD_ACTIVE = "active";
+    private static final String FIELD_SUMMARY_TEXT = "text";
+    private static final String FIELD_SUMMARY_COVERED_UNTIL = "coveredUntil";
+
+    // Sent as EVALSHA once Redis has the script cached
+    private static final RedisScript<Long> APPEND_MESSAGE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/append-message.lua"), Long.class);
+
+    @Autowired
+    private ReactiveRedisTemplate<String, byte[]> chatRedisTemplate;
+
+    @Autowired
+    private ChatMessageCodec messageCodec;
+
+    @Autowired
+    private ReactiveStringRedisTemplate stringRedisTemplate;
+
+    // Upper bound on keys per UNLINK so clearing a large account does not stall Redis on one command
+    @Value("${app.chat.storage.delete-batch-size:500}")
+    private int deleteBatchSize;
+
+    @Value("${app.chat.storage.session-ttl-seconds:86400}")
+    private long sessionTtlSeconds;
+
+    // The commands are subscribed in order on the shared connection, so they are pipelined and the hash
+    // exists before its id is listed. Inactive sessions are kept out of the index.
+    public Mono<ChatSession> save(ChatSession session) {
+        String sessionKey = sessionKey(session.getSessionId());
+        String userSessionsKey = userSessionsKey(session.getUserId());
+        Mono<?> index = session.isActive()
+                ? stringRedisTemplate.opsForZSet().add(userSessionsKey, session.getSessionId(),
+                        activityScore(session.getLastActivityAt()))
+                : stringRedisTemplate.opsForZSet().remove(userSessionsKey, session.getSessionId());
+        return Mono.when(
+                        stringRedisTemplate.<String, String>opsForHash().putAll(sessionKey, toHash(session)),
+                        stringRedisTemplate.expire(sessionKey, sessionTtl()),
+                        index,
+                        stringRedisTemplate.expire(userSessionsKey, sessionTtl()))
+                .thenReturn(session);
+    }
+
+    public Mono<ChatSession> findById(String sessionId) {
+        return stringRedisTemplate.<String, String>opsForHash().entries(sessionKey(sessionId))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .filter(fields -> !fields.isEmpty())
+                .map(this::fromHash);
+    }
+
+    // All sessions in one batch: the HGETALLs are written back to back on the shared connection and the
+    // replies read in order, so listing costs one round trip however many sessions there are.
+    // Ids whose session hash is gone are dropped from the user's set on the way.
+    public Flux<ChatSession> findAllById(Long userId, Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return Flux.empty();
+        }
+
+        List<String> missing = new ArrayList<>();
+        Flux<ChatSession> sessions = stringRedisTemplate.execute(connection -> connection.hashCommands()
+                        .hGetAll(Flux.fromIterable(sessionIds)
+                                .map(id -> new ReactiveRedisConnection.KeyCommand(encode(sessionKey(id))))))
+                .concatMap(response -> response.getOutput()
+                        .collectMap(entry -> decode(entry.getKey()), entry -> decode(entry.getValue()))
+                        .flatMap(fields -> {
+                            if (fields.isEmpty()) {
+                                missing.add(decode(response.getInput().getKey()).substring(SESSION_KEY_PREFIX.length()));
+                                return Mono.empty();
+                            }
+                            return Mono.just(fromHash(fields));
+                        }));
+
+        return sessions.concatWith(Mono.defer(() -> missing.isEmpty()
+                ? Mono.empty()
+                : stringRedisTemplate.opsForZSet().remove(userSessionsKey(userId), missing.toArray()).then(Mono.empty())));
+    }
+
+    // Appends to the history, touches the session, moves it to the top of the user's index and, for an
+    // opening exchange, sets the title, atomically and in one round trip. Emits the new message count, or 0
+    // if the session was deleted meanwhile.
+    public Mono<Long> appendMessage(ChatSession session, ChatMessage message, String title) {
+        List<byte[]> args = List.of(
+                messageCodec.encode(message),
+                message.getTimestamp().toString().getBytes(StandardCharsets.UTF_8),
+                (title != null ? title : "").getBytes(StandardCharsets.UTF_8),
+                String.valueOf(sessionTtl().toMillis()).getBytes(StandardCharsets.UTF_8),
+                String.valueOf(activityScore(message.getTimestamp())).getBytes(StandardCharsets.UTF_8),
+                session.getSessionId().getBytes(StandardCharsets.UTF_8));
+        List<String> keys = List.of(sessionKey(session.getSessionId()), messagesKey(session.getSessionId()),
+                summaryKey(session.getSessionId()), userSessionsKey(session.getUserId()));
+
+        return chatRedisTemplate.execute(APPEND_MESSAGE_SCRIPT, keys, args)
+                .next()
+                .doOnNext(count -> {
+                    session.setMessageCount(count.intValue());
+                    session.setLastActivityAt(message.getTimestamp());
+                    if (title != null && count > 0 && count <= 2) {
+                        session.setTitle(title);
+                    }
+                });
+    }
+
+    public Flux<ChatMessage> findMessages(String sessionId) {
+        return findMessages(sessionId, 0);
+    }
+
+    // The tail of the history starting at list position fromIndex
+    public Flux<ChatMessage> findMessages(String sessionId, long fromIndex) {
+        return chatRedisTemplate.opsForList().range(messagesKey(sessionId), fromIndex, -1).map(messageCodec::decode);
+    }
+
+    // Messages at list positions fromIndex to toIndex, both inclusive
+    public Flux<ChatMessage> findMessages(String sessionId, long fromIndex, long toIndex) {
+        return chatRedisTemplate.opsForList().range(messagesKey(sessionId), fromIndex, toIndex).map(messageCodec::decode);
+    }
+
+    public Mono<ConversationSummary> findSummary(String sessionId) {
+        return stringRedisTemplate.<String, String>opsForHash().entries(summaryKey(sessionId))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .filter(fields -> !fields.isEmpty())
+                .map(fields -> new ConversationSummary(fields.get(FIELD_SUMMARY_TEXT),
+                        Long.parseLong(fields.get(FIELD_SUMMARY_COVERED_UNTIL))));
+    }
+
+    public Mono<ConversationSummary> saveSummary(String sessionId, ConversationSummary summary) {
+        return Mono.when(
+                        stringRedisTemplate.<String, String>opsForHash().putAll(summaryKey(sessionId), Map.of(
+                                FIELD_SUMMARY_TEXT, summary.getText(),
+                                FIELD_SUMMARY_COVERED_UNTIL, String.valueOf(summary.getCoveredUntil()))),
+                        stringRedisTemplate.expire(summaryKey(sessionId), sessionTtl()))
+                .thenReturn(summary);
+    }
+
+    public Mono<Void> delete(ChatSession session) {
+        return chatRedisTemplate.unlink(sessionKey(session.getSessionId()), messagesKey(session.getSessionId()),
+                        summaryKey(session.getSessionId()))
+                .then(stringRedisTemplate.opsForZSet().remove(userSessionsKey(session.getUserId()), session.getSessionId()))
+                .then();
+    }
+
+    // One page of the user's unexpired session ids, most recently active first, read with a single
+    // ZREVRANGEBYSCORE; expired and inactive sessions are never fetched
+    public Flux<String> findRecentSessionIds(Long userId, int offset, int count) {
+        return stringRedisTemplate.opsForZSet().reverseRangeByScore(userSessionsKey(userId),
+                Range.rightUnbounded(Range.Bound.inclusive((double) expiryCutoff())),
+                Limit.limit().offset(offset).count(count));
+    }
+
+    public Flux<String> findSessionIds(Long userId) {
+        return stringRedisTemplate.opsForZSet().range(userSessionsKey(userId), Range.unbounded());
+    }
+
+    // Removes every session of the user, hash and history alike, with batched UNLINKs instead of one
+    // ownership check and delete per session; emits the number of keys removed
+    public Mono<Long> deleteAllByUserId(Long userId) {
+        return findSessionIds(userId)
+                .flatMapIterable(sessionId -> List.of(sessionKey(sessionId), messagesKey(sessionId), summaryKey(sessionId)))
+                .buffer(deleteBatchSize)
+                .concatMap(keys -> stringRedisTemplate.unlink(keys.toArray(new String[0])))
+                .reduce(0L, Long::sum)
+                .flatMap(unlinked -> stringRedisTemplate.unlink(userSessionsKey(userId))
+                        .thenReturn(unlinked));
+    }
+
+    // Users that have a session index, found with SCAN so the keyspace is walked a page at a time
+    public Flux<Long> findUserIdsWithSessions(int pageSize) {
+        ScanOptions options = ScanOptions.scanOptions().match(USER_SESSIONS_KEY_PREFIX + "*").count(pageSize).build();
+        return stringRedisTemplate.scan(options)
+                .map(key -> key.substring(USER_SESSIONS_KEY_PREFIX.length()))
+                .filter(userId -> !userId.isEmpty() && userId.chars().allMatch(Character::isDigit))
+                .map(Long::valueOf);
+    }
+
+    // Drops the ids of expired sessions from the user's index. Activity sets both the score and the
+    // expiry, so they are exactly the ids scored before the cutoff: one ZREMRANGEBYSCORE, no lookups.
+    public Mono<Long> removeExpiredSessionIds(Long userId) {
+        return stringRedisTemplate.opsForZSet().removeRangeByScore(userSessionsKey(userId),
+                Range.leftUnbounded(Range.Bound.exclusive((double) expiryCutoff())));
+    }
+
+    private Map<String, String> toHash(ChatSession session) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_SESSION_ID, session.getSessionId());
+        fields.put(FIELD_USER_ID, String.valueOf(session.getUserId()));
+        fields.put(FIELD_TITLE, session.getTitle());
+        fields.put(FIELD_MESSAGE_COUNT, String.valueOf(session.getMessageCount()));
+        fields.put(FIELD_CREATED_AT, session.getCreatedAt().toString());
+        fields.put(FIELD_LAST_ACTIVITY_AT, session.getLastActivityAt().toString());
+        fields.put(FIELD_ACTIVE, String.valueOf(session.isActive()));
+        return fields;
+    }
+
+    private ChatSession fromHash(Map<String, String> fields) {
+        ChatSession session = new ChatSession(fields.get(FIELD_SESSION_ID), Long.valueOf(fields.get(FIELD_USER_ID)));
+        session.setTitle(fields.get(FIELD_TITLE));
+        session.setMessageCount(Integer.parseInt(fields.getOrDefault(FIELD_MESSAGE_COUNT, "0")));
+        session.setCreatedAt(LocalDateTime.parse(fields.get(FIELD_CREATED_AT)));
+        session.setLastActivityAt(LocalDateTime.parse(fields.get(FIELD_LAST_ACTIVITY_AT)));
+        session.setActive(Boolean.parseBoolean(fields.get(FIELD_ACTIVE)));
+        return session;
+    }
+
+    private static ByteBuffer encode(String value) {
+        return ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(ByteBuffer buffer) {
+        return StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+    }
+
+    // Session times are local wall-clock times, as everywhere else in the service
+    private static long activityScore(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private long expiryCutoff() {
+        return System.currentTimeMillis() - sessionTtl().toMillis();
+    }
+
+    private Duration sessionTtl() {
+        return Duration.ofSeconds(sessionTtlSeconds);
+    }
+
+    private String sessionKey(String sessionId) {
+        return SESSION_KEY_PREFIX + sessionId;
+    }
+
+    private String messagesKey(String sessionId) {
+        return MESSAGES_KEY_PREFIX + sessionId;
+    }
+
+    private String summaryKey(String sessionId) {
+        return SUMMARY_KEY_PREFIX + sessionId;
+    }
+
+    private String userSessionsKey(Long userId) {
+        return USER_SESSIONS_KEY_PREFIX + userId;
+    }
+}
@@ -3,203 +3,244 @@ package com.taskmanager.chat.service;
 import com.taskmanager.chat.client.OpenAIClient;
 import com.taskmanager.chat.dto.ChatRequest;
 import com.taskmanager.chat.dto.ChatResponse;
+import com.taskmanager.chat.dto.OpenAIRequest;
 import com.taskmanager.chat.entity.ChatMessage;
 import com.taskmanager.chat.entity.ChatSession;
+import com.taskmanager.chat.exception.UpstreamUnavailableException;
+import com.taskmanager.chat.repository.ChatSessionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 public class ChatService {
 
     @Autowired
-    private RedisTemplate<String, Object> redisTemplate;
+    private ChatSessionRepository sessionRepository;
 
     @Autowired
     private OpenAIClient openAIClient;
 
-    private static final String SESSION_KEY_PREFIX = "chat_session:";
-    private static final String MESSAGE_KEY_PREFIX = "chat_message:";
-    private static final String USER_SESSIONS_KEY_PREFIX = "user_sessions:";
-
-    public ChatResponse sendMessage(ChatRequest request, Long userId) {
-        String sessionId = request.getSessionId();
-
-        // Create new session if not provided
-        if (sessionId == null || sessionId.trim().isEmpty()) {
-            sessionId = createNewSession(userId);
-        }
-
-        // Validate session ownership
-        ChatSession session = getSession(sessionId);
-        if (session == null || !session.getUserId().equals(userId)) {
-            sessionId = createNewSession(userId);
-            session = getSession(sessionId);
-        }
-
-        // Create user message
-        ChatMessage userMessage = new ChatMessage(userId, sessionId, request.getMessage(), true);
-        userMessage.setType(request.getType());
-        userMessage.setId(UUID.randomUUID().toString());
-
-        // Save user message
-        saveMessage(userMessage);
-        session.addMessageId(userMessage.getId());
-        saveSession(session);
-
-        try {
-            // Get AI response
-            String aiResponse = openAIClient.getChatCompletion(request.getMessage(), request.getContext()).block();
-
-            // Create AI response message
-            ChatMessage aiMessage = new ChatMessage(userId, sessionId, request.getMessage(), false);
-            aiMessage.setResponse(aiResponse);
-            aiMessage.setType(request.getType());
-            aiMessage.setId(UUID.randomUUID().toString());
-
-            // Save AI message
-            saveMessage(aiMessage);
-            session.addMessageId(aiMessage.getId());
-            saveSession(session);
-
-            // Update session title if it's the first message
-            if (session.getMessageIds().size() <= 2) {
-                updateSessionTitle(session, request.getMessage());
-            }
-
-            return new ChatResponse(aiMessage);
-
-        } catch (Exception e) {
-            System.err.println("Error getting AI response: " + e.getMessage());
-
-            // Create fallback response
-            ChatMessage fallbackMessage = new ChatMessage(userId, sessionId, request.getMessage(), false);
-            fallbackMessage.setResponse("I apologize, but I'm currently unable to process your request. Please try again later.");
-            fallbackMessage.setId(UUID.randomUUID().toString());
+    @Autowired
+    private ResponseCacheService responseCache;
 
-            saveMessage(fallbackMessage);
-            session.addMessageId(fallbackMessage.getId());
-            saveSession(session);
+    @Autowired
+    private CompletionSingleFlight singleFlight;
 
-            return new ChatResponse(fallbackMessage);
-        }
+    @Autowired
+    private ConversationContextBuilder contextBuilder;
+
+    @Value("${app.chat.sessions.max-page-size:100}")
+    private int maxSessionPageSize;
+
+    private static final String FALLBACK_RESPONSE =
+            "I apologize, but I'm currently unable to process your request. Please try again later.";
+
+    // Nothing in this pipeline blocks, so the event-loop thread is released while the completion is in flight
+    public Mono<ChatResponse> sendMessage(ChatRequest request, Long userId) {
+        return startExchange(request, userId)
+                .flatMap(session -> contextBuilder.build(session)
+                        .flatMap(history -> completion(request, history))
+                        .onErrorResume(error -> {
+                            System.err.println("Error getting AI response: " + error.getMessage());
+                            return Mono.just(fallbackResponse(request, error));
+                        })
+                        .flatMap(aiResponse -> saveReply(session, request, aiResponse)));
     }
 
-    public String createNewSession(Long userId) {
-        String sessionId = UUID.randomUUID().toString();
-        ChatSession session = new ChatSession(sessionId, userId);
-
-        saveSession(session);
-        addSessionToUser(userId, sessionId);
-
-        return sessionId;
+    // Relays the completion as it is generated: a "session" event, then "token" events, then a "done" event
+    // carrying the stored reply once the assembled message has been saved
+    public Flux<ServerSentEvent<Object>> streamMessage(ChatRequest request, Long userId) {
+        return startExchange(request, userId)
+                .flatMapMany(session -> {
+                    // Tokens are appended on the upstream's thread while a cancel arrives on the client's, so the
+                    // buffer has to be synchronized
+                    StringBuffer assembled = new StringBuffer();
+                    AtomicBoolean saved = new AtomicBoolean(false);
+
+                    // A cached answer is replayed in the same chunked form; only a completed upstream answer is cached
+                    Flux<String> completion = contextBuilder.build(session)
+                            .flatMapMany(history -> history.isEmpty()
+                                    ? cachedCompletion(request)
+                                            .flatMapMany(cached -> Flux.fromIterable(OpenAIClient.splitIntoChunks(cached)))
+                                            .switchIfEmpty(Flux.defer(() -> openAIClient.streamChatCompletion(request.getMessage(), request.getContext())
+                                                    .concatWith(Mono.defer(() -> storeCompletion(request, assembled.toString().trim()))
+                                                            .then(Mono.empty()))))
+                                    : openAIClient.streamChatCompletion(request.getMessage(), request.getContext(), history));
+
+                    Flux<ServerSentEvent<Object>> tokens = completion
+                            .doOnNext(assembled::append)
+                            .map(this::tokenEvent)
+                            .onErrorResume(error -> {
+                                System.err.println("Error streaming AI response: " + error.getMessage());
+                                // Keep whatever was already relayed; only an empty answer is replaced
+                                if (assembled.length() > 0) {
+                                    return Flux.empty();
+                                }
+                                String fallback = fallbackResponse(request, error);
+                                assembled.append(fallback);
+                                return Flux.just(tokenEvent(fallback));
+                            });
+
+                    Mono<ServerSentEvent<Object>> done = Mono.defer(() -> saved.compareAndSet(false, true)
+                                    ? saveReply(session, request, assembled.toString().trim())
+                                    : Mono.empty())
+                            .map(response -> ServerSentEvent.<Object>builder(response).event("done").build());
+
+                    return Flux.concat(
+                                    Mono.just(ServerSentEvent.<Object>builder(Map.of("sessionId", session.getSessionId()))
+                                            .event("session").build()),
+                                    tokens,
+                                    done)
+                            .doOnCancel(() -> {
+                                // Client went away mid-stream: keep the partial answer in the history
+                                if (assembled.length() > 0 && saved.compareAndSet(false, true)) {
+                                    saveReply(session, request, assembled.toString().trim()).subscribe(
+                                            response -> { },
+                                            error -> System.err.println("Error saving partial AI response: "
+                                                    + error.getMessage()));
+                                }
+                            });
+                });
     }
 
-    public List<ChatSession> getUserSessions(Long userId) {
-        List<String> sessionIds = getUserSessionIds(userId);
-
-        return sessionIds.stream()
-                .map(this::getSession)
-                .filter(session -> session != null && session.isActive())
-                .sorted((s1, s2) -> s2.getLastActivityAt().compareTo(s1.getLastActivityAt()))
-                .collect(Collectors.toList());
+    public Mono<String> createNewSession(Long userId) {
+        return createSession(userId).map(ChatSession::getSessionId);
     }
 
-    public List<ChatResponse> getSessionMessages(String sessionId, Long userId) {
-        ChatSession session = getSession(sessionId);
-
-        if (session == null || !session.getUserId().equals(userId)) {
-            throw new RuntimeException("Session not found or unauthorized access");
-        }
+    // The index already holds the sessions in order, so only the requested page is read
+    public Mono<List<ChatSession>> getUserSessions(Long userId, int page, int size) {
+        int limit = Math.max(1, Math.min(size, maxSessionPageSize));
+        // Computed in long so a huge page number reads past the end instead of wrapping to a negative offset
+        int offset = (int) Math.min((long) Math.max(0, page) * limit, Integer.MAX_VALUE);
+        return sessionRepository.findRecentSessionIds(userId, offset, limit)
+                .collectList()
+                .flatMapMany(sessionIds -> sessionRepository.findAllById(userId, sessionIds))
+                .filter(ChatSession::isActive)
+                .collectList();
+    }
 
-        return session.getMessageIds().stream()
-                .map(this::getMessage)
-                .filter(message -> message != null)
+    public Mono<List<ChatResponse>> getSessionMessages(String sessionId, Long userId) {
+        // The ownership read and the LRANGE go out together rather than one after the other
+        return Mono.zip(getOwnedSession(sessionId, userId), sessionRepository.findMessages(sessionId).collectList())
+                .flatMapMany(sessionAndMessages -> Flux.fromIterable(sessionAndMessages.getT2()))
                 .map(ChatResponse::new)
-                .sorted((m1, m2) -> m1.getTimestamp().compareTo(m2.getTimestamp()))
-                .collect(Collectors.toList());
+                .collectList();
     }
 
-    public void deleteSession(String sessionId, Long userId) {
-        ChatSession session = getSession(sessionId);
+    public Mono<Void> deleteSession(String sessionId, Long userId) {
+        return getOwnedSession(sessionId, userId)
+                .flatMap(sessionRepository::delete);
+    }
 
-        if (session == null || !session.getUserId().equals(userId)) {
-            throw new RuntimeException("Session not found or unauthorized access");
-        }
+    public Mono<Void> clearUserSessions(Long userId) {
+        return sessionRepository.deleteAllByUserId(userId).then();
+    }
 
-        // Delete all messages in the session
-        if (session.getMessageIds() != null) {
-            session.getMessageIds().forEach(this::deleteMessage);
+    // Only an opening message stands on its own; a follow-up's answer depends on the conversation, so it is
+    // neither served from nor stored in the response cache
+    private Mono<String> completion(ChatRequest request, List<OpenAIRequest.Message> history) {
+        if (!history.isEmpty()) {
+            return openAIClient.getChatCompletion(request.getMessage(), request.getContext(), history);
         }
-
-        // Mark session as inactive
-        session.setActive(false);
-        saveSession(session);
-
-        // Remove from user's session list
-        removeSessionFromUser(userId, sessionId);
+        return cachedCompletion(request)
+                .switchIfEmpty(Mono.defer(() -> coalescedCompletion(request)));
     }
 
-    public void clearUserSessions(Long userId) {
-        List<String> sessionIds = getUserSessionIds(userId);
-
-        sessionIds.forEach(sessionId -> {
-            try {
-                deleteSession(sessionId, userId);
-            } catch (Exception e) {
-                System.err.println("Error deleting session " + sessionId + ": " + e.getMessage());
-            }
-        });
+    private Mono<String> cachedCompletion(ChatRequest request) {
+        return responseCache.lookup(request.getMessage(), request.getContext(), openAIClient.getModel());
+    }
 
-        // Clear user sessions list
-        redisTemplate.delete(USER_SESSIONS_KEY_PREFIX + userId);
+    // Identical prompts already waiting on the upstream share that call and its cache write
+    private Mono<String> coalescedCompletion(ChatRequest request) {
+        String model = openAIClient.getModel();
+        return singleFlight.execute(
+                ResponseCacheService.requestKey(request.getMessage(), request.getContext(), model),
+                () -> openAIClient.getChatCompletion(request.getMessage(), request.getContext())
+                        .flatMap(aiResponse -> storeCompletion(request, aiResponse).thenReturn(aiResponse)));
     }
 
-    private void saveSession(ChatSession session) {
-        redisTemplate.opsForValue().set(SESSION_KEY_PREFIX + session.getSessionId(), session);
+    private Mono<Void> storeCompletion(ChatRequest request, String aiResponse) {
+        if (aiResponse.isEmpty()) {
+            return Mono.empty();
+        }
+        return responseCache.store(request.getMessage(), request.getContext(), openAIClient.getModel(), aiResponse);
     }
 
-    private ChatSession getSession(String sessionId) {
-        return (ChatSession) redisTemplate.opsForValue().get(SESSION_KEY_PREFIX + sessionId);
+    // While the upstream is shedding load a canned answer on the topic beats an apology; neither is cached
+    private String fallbackResponse(ChatRequest request, Throwable error) {
+        return error instanceof UpstreamUnavailableException
+                ? openAIClient.getMockResponse(request.getMessage())
+                : FALLBACK_RESPONSE;
     }
 
-    private void saveMessage(ChatMessage message) {
-        redisTemplate.opsForValue().set(MESSAGE_KEY_PREFIX + message.getId(), message);
+    // Tokens go out as JSON because SSE clients strip the leading space a raw "data: word" line would carry
+    private ServerSentEvent<Object> tokenEvent(String token) {
+        return ServerSentEvent.<Object>builder(Map.of("content", token)).event("token").build();
     }
 
-    private ChatMessage getMessage(String messageId) {
-        return (ChatMessage) redisTemplate.opsForValue().get(MESSAGE_KEY_PREFIX + messageId);
+    // Resolves the session and stores the user's message ahead of the completion call
+    private Mono<ChatSession> startExchange(ChatRequest request, Long userId) {
+        return resolveSession(request.getSessionId(), userId)
+                .flatMap(session -> {
+                    // Create user message
+                    ChatMessage userMessage = new ChatMessage(userId, session.getSessionId(), request.getMessage(), true);
+                    userMessage.setType(request.getType());
+                    userMessage.setId(UUID.randomUUID().toString());
+
+                    return appendToSession(session, userMessage, null)
+                            .thenReturn(session);
+                });
     }
 
-    private void deleteMessage(String messageId) {
-        redisTemplate.delete(MESSAGE_KEY_PREFIX + messageId);
+    private Mono<ChatResponse> saveReply(ChatSession session, ChatRequest request, String aiResponse) {
+        ChatMessage aiMessage = new ChatMessage(session.getUserId(), session.getSessionId(), request.getMessage(), false);
+        aiMessage.setResponse(aiResponse);
+        aiMessage.setType(request.getType());
+        aiMessage.setId(UUID.randomUUID().toString());
+
+        // The title only takes if this reply completes the session's first exchange
+        return appendToSession(session, aiMessage, generateSessionTitle(request.getMessage()))
+                .thenReturn(new ChatResponse(aiMessage));
     }
 
-    private void addSessionToUser(Long userId, String sessionId) {
-        redisTemplate.opsForSet().add(USER_SESSIONS_KEY_PREFIX + userId, sessionId);
+    // The append script writes nothing and answers 0 when the session was deleted or expired after it was resolved
+    private Mono<Long> appendToSession(ChatSession session, ChatMessage message, String title) {
+        return sessionRepository.appendMessage(session, message, title)
+                .filter(count -> count > 0)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Session not found: " + session.getSessionId())));
     }
 
-    private void removeSessionFromUser(Long userId, String sessionId) {
-        redisTemplate.opsForSet().remove(USER_SESSIONS_KEY_PREFIX + userId, sessionId);
+    private Mono<ChatSession> resolveSession(String sessionId, Long userId) {
+        // Create new session if not provided
+        if (sessionId == null || sessionId.trim().isEmpty()) {
+            return createSession(userId);
+        }
+
+        // Validate session ownership
+        return sessionRepository.findById(sessionId)
+                .filter(session -> session.getUserId().equals(userId))
+                .switchIfEmpty(Mono.defer(() -> createSession(userId)));
     }
 
-    @SuppressWarnings("unchecked")
-    private List<String> getUserSessionIds(Long userId) {
-        return redisTemplate.opsForSet().members(USER_SESSIONS_KEY_PREFIX + userId)
-                .stream()
-                .map(Object::toString)
-                .collect(Collectors.toList());
+    private Mono<ChatSession> createSession(Long userId) {
+        ChatSession session = new ChatSession(UUID.randomUUID().toString(), userId);
+
+        return sessionRepository.save(session);
     }
 
-    private void updateSessionTitle(ChatSession session, String firstMessage) {
-        String title = generateSessionTitle(firstMessage);
-        session.setTitle(title);
-        saveSession(session);
+    private Mono<ChatSession> getOwnedSession(String sessionId, Long userId) {
+        return sessionRepository.findById(sessionId)
+                .filter(session -> session.getUserId().equals(userId))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Session not found or unauthorized access")));
     }
 
     private String generateSessionTitle(String firstMessage) {
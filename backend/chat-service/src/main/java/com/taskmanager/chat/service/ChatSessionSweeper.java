@@ -0,0 +1,81 @@
+package com.taskmanager.chat.service;
+
+import com.taskmanager.chat.repository.ChatSessionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+// Session hashes expire on their own, but their ids stay in the users' session indexes, where listing skips
+// them by score. This trims them in the background. Keys are found with SCAN one page at a time and handled
+// one user after another, so Redis is never handed a long-running command, and a lock key keeps the
+// instances from sweeping at the same time.
+@Service
+public class ChatSessionSweeper {
+
+    private static final String LOCK_KEY = "chat:sweeper:lock";
+
+    private final ChatSessionRepository sessionRepository;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final Counter removedCounter;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final boolean enabled;
+    private final int pageSize;
+    private final Duration lockTtl;
+
+    public ChatSessionSweeper(ChatSessionRepository sessionRepository,
+                              ReactiveStringRedisTemplate redisTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.chat.sweeper.enabled:true}") boolean enabled,
+                              @Value("${app.chat.sweeper.page-size:200}") int pageSize,
+                              @Value("${app.chat.sweeper.lock-ttl-ms:600000}") long lockTtlMs) {
+        this.sessionRepository = sessionRepository;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.lockTtl = Duration.ofMillis(lockTtlMs);
+        this.removedCounter = meterRegistry.counter("chat.sessions.swept");
+    }
+
+    @Scheduled(initialDelayString = "${app.chat.sweeper.initial-delay-ms:60000}",
+               fixedDelayString = "${app.chat.sweeper.interval-ms:900000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            // Runs on the scheduler thread, so waiting for the sweep also keeps runs from overlapping
+            Long removed = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, instanceId, lockTtl)
+                    .filter(Boolean::booleanValue)
+                    .flatMap(locked -> sessionRepository.findUserIdsWithSessions(pageSize)
+                            .concatMap(sessionRepository::removeExpiredSessionIds)
+                            .reduce(0L, Long::sum)
+                            .flatMap(count -> releaseLock().thenReturn(count))
+                            .onErrorResume(error -> releaseLock().then(Mono.error(error))))
+                    .block();
+
+            if (removed != null && removed > 0) {
+                removedCounter.increment(removed);
+                System.out.println("Removed " + removed + " expired chat session ids from user session indexes");
+            }
+        } catch (Exception e) {
+            System.err.println("Chat session sweep failed: " + e.getMessage());
+        }
+    }
+
+    // Only the holder deletes the lock, so a sweep that outlived it cannot free another instance's lock
+    private Mono<Void> releaseLock() {
+        return redisTemplate.opsForValue().get(LOCK_KEY)
+                .filter(instanceId::equals)
+                .flatMap(owner -> redisTemplate.delete(LOCK_KEY))
+                .then();
+    }
+}
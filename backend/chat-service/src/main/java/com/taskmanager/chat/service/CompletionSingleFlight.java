@@ -0,0 +1,78 @@
+package com.taskmanager.chat.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Joins concurrent identical completion requests onto one upstream call. The first caller for a key leads
+// the flight; callers arriving while it is in the air share its result, error included, instead of sending
+// their own request. The flight is forgotten as soon as it completes, so nothing is cached here.
+@Service
+public class CompletionSingleFlight {
+
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final int maxWaiters;
+
+    private final AtomicLong leaders = new AtomicLong();
+    private final AtomicLong joined = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public CompletionSingleFlight(MeterRegistry meterRegistry,
+                                  @Value("${app.single-flight.enabled:true}") boolean enabled,
+                                  @Value("${app.single-flight.max-waiters:1000}") int maxWaiters) {
+        this.enabled = enabled;
+        this.maxWaiters = maxWaiters;
+
+        meterRegistry.more().counter("chat.singleflight.requests", Tags.of("role", "leader"), leaders);
+        meterRegistry.more().counter("chat.singleflight.requests", Tags.of("role", "joined"), joined);
+        meterRegistry.more().counter("chat.singleflight.requests", Tags.of("role", "overflow"), overflowed);
+        meterRegistry.gaugeMapSize("chat.singleflight.inflight", Tags.empty(), inFlight);
+    }
+
+    public Mono<String> execute(String key, Supplier<Mono<String>> call) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+
+        return Mono.defer(() -> {
+            Flight created = new Flight(key, call);
+            Flight flight = inFlight.putIfAbsent(key, created);
+            if (flight == null) {
+                leaders.incrementAndGet();
+                return created.result;
+            }
+
+            // Past the bound a caller goes upstream on its own rather than piling onto one flight
+            if (flight.waiters.incrementAndGet() > maxWaiters) {
+                flight.waiters.decrementAndGet();
+                overflowed.incrementAndGet();
+                return Mono.defer(call);
+            }
+            joined.incrementAndGet();
+            return flight.result.doFinally(signal -> flight.waiters.decrementAndGet());
+        });
+    }
+
+    private class Flight {
+        private final AtomicInteger waiters = new AtomicInteger();
+        private final Mono<String> result;
+
+        private Flight(String key, Supplier<Mono<String>> call) {
+            // cache() keeps the upstream call running when a single subscriber cancels, so the leader's
+            // client disconnecting does not fail everyone who joined
+            this.result = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(key, this))
+                    .cache();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.taskmanager.chat.service;
+
+import com.taskmanager.chat.client.TokenCounter;
+import com.taskmanager.chat.dto.OpenAIRequest;
+import com.taskmanager.chat.entity.ChatMessage;
+import com.taskmanager.chat.entity.ChatSession;
+import com.taskmanager.chat.entity.ConversationSummary;
+import com.taskmanager.chat.repository.ChatSessionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+// Builds the conversation history sent with a new message: the most recent exchanges that fit the token
+// budget, preceded by a rolling summary of older ones. The summary is kept per session in Redis and only
+// extended with the exchanges that have just slid out of the window, so no request re-reads or
+// re-summarizes the whole history.
+@Service
+public class ConversationContextBuilder {
+
+    private static final String SUMMARY_PREFIX = "Summary of the earlier conversation:\n";
+
+    @Autowired
+    private ChatSessionRepository sessionRepository;
+
+    @Autowired
+    private TokenCounter tokenCounter;
+
+    @Value("${app.chat.context.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.chat.context.max-history-tokens:1500}")
+    private int maxHistoryTokens;
+
+    // How far back to read; exchanges older than this are only represented by the summary
+    @Value("${app.chat.context.max-history-messages:40}")
+    private int maxHistoryMessages;
+
+    @Value("${app.chat.context.summary-max-tokens:300}")
+    private int summaryMaxTokens;
+
+    @Value("${app.chat.context.summary-line-tokens:40}")
+    private int summaryLineTokens;
+
+    // History for the session's next completion, oldest first; empty for the opening message
+    public Mono<List<OpenAIRequest.Message>> build(ChatSession session) {
+        // The current exchange's user message has already been appended, so it alone means no history
+        if (!enabled || session.getMessageCount() <= 1) {
+            return Mono.just(Collections.emptyList());
+        }
+
+        long fromIndex = Math.max(0, session.getMessageCount() - maxHistoryMessages);
+        return Mono.zip(
+                        sessionRepository.findMessages(session.getSessionId(), fromIndex).collectList(),
+                        sessionRepository.findSummary(session.getSessionId()).defaultIfEmpty(new ConversationSummary()))
+                .flatMap(recentAndSummary -> withUnsummarizedGap(session, fromIndex, recentAndSummary.getT1(),
+                        recentAndSummary.getT2()))
+                .onErrorResume(error -> {
+                    // Answering without history beats not answering
+                    System.err.println("Error building conversation context for session " + session.getSessionId()
+                            + ": " + error.getMessage());
+                    return Mono.just(Collections.emptyList());
+                });
+    }
+
+    // Messages can slide past the read window before they are folded in, e.g. while the context was disabled or
+    // failing; those are read too, starting where the summary ends, so nothing drops out unsummarized
+    private Mono<List<OpenAIRequest.Message>> withUnsummarizedGap(ChatSession session, long fromIndex,
+                                                                   List<ChatMessage> recent, ConversationSummary summary) {
+        long readFrom = summary.getCoveredUntil();
+        if (readFrom >= fromIndex) {
+            return assemble(session, fromIndex, fromIndex, recent, summary);
+        }
+        return sessionRepository.findMessages(session.getSessionId(), readFrom, fromIndex - 1)
+                .collectList()
+                .flatMap(gap -> {
+                    List<ChatMessage> history = new ArrayList<>(gap.size() + recent.size());
+                    history.addAll(gap);
+                    history.addAll(recent);
+                    return assemble(session, readFrom, fromIndex, history, summary);
+                });
+    }
+
+    // readFrom is the list position of history[0]; only exchanges from windowFrom on may stay verbatim
+    private Mono<List<OpenAIRequest.Message>> assemble(ChatSession session, long readFrom, long windowFrom,
+                                                        List<ChatMessage> history, ConversationSummary summary) {
+        // Each stored reply carries its prompt, so one reply is one complete exchange
+        List<Exchange> exchanges = new ArrayList<>();
+        for (int i = 0; i < history.size(); i++) {
+            ChatMessage message = history.get(i);
+            if (!message.isFromUser() && message.getResponse() != null) {
+                exchanges.add(new Exchange(readFrom + i, message.getMessage(), message.getResponse()));
+            }
+        }
+
+        // Newest exchanges first, for as long as they fit
+        int budget = maxHistoryTokens;
+        int firstKept = exchanges.size();
+        while (firstKept > 0 && exchanges.get(firstKept - 1).index >= windowFrom) {
+            int cost = exchanges.get(firstKept - 1).tokens();
+            if (cost > budget) {
+                break;
+            }
+            budget -= cost;
+            firstKept--;
+        }
+
+        List<Exchange> window = exchanges.subList(firstKept, exchanges.size());
+        List<Exchange> unsummarized = exchanges.subList(0, firstKept).stream()
+                .filter(exchange -> exchange.index >= summary.getCoveredUntil())
+                .toList();
+
+        Mono<ConversationSummary> current = unsummarized.isEmpty()
+                ? Mono.just(summary)
+                : sessionRepository.saveSummary(session.getSessionId(), fold(summary, unsummarized));
+
+        return current.map(rolling -> {
+            List<OpenAIRequest.Message> messages = new ArrayList<>();
+            if (!rolling.getText().isEmpty()) {
+                messages.add(new OpenAIRequest.Message("system", SUMMARY_PREFIX + rolling.getText()));
+            }
+            for (Exchange exchange : window) {
+                messages.add(new OpenAIRequest.Message("user", exchange.prompt));
+                messages.add(new OpenAIRequest.Message("assistant", exchange.response));
+            }
+            return messages;
+        });
+    }
+
+    // Extractive digest: one line per exchange with the question and the opening of the answer; the oldest
+    // lines go first once the summary outgrows its budget
+    private ConversationSummary fold(ConversationSummary summary, List<Exchange> exchanges) {
+        LinkedList<String> lines = new LinkedList<>();
+        if (!summary.getText().isEmpty()) {
+            lines.addAll(Arrays.asList(summary.getText().split("\n")));
+        }
+        for (Exchange exchange : exchanges) {
+            lines.add("- User asked: " + tokenCounter.truncate(oneLine(exchange.prompt), summaryLineTokens)
+                    + " Assistant: " + tokenCounter.truncate(firstSentence(exchange.response), summaryLineTokens));
+        }
+
+        String text = String.join("\n", lines);
+        while (lines.size() > 1 && tokenCounter.count(text) > summaryMaxTokens) {
+            lines.removeFirst();
+            text = String.join("\n", lines);
+        }
+
+        long coveredUntil = exchanges.get(exchanges.size() - 1).index + 1;
+        return new ConversationSummary(text, Math.max(coveredUntil, summary.getCoveredUntil()));
+    }
+
+    private static String firstSentence(String text) {
+        String line = oneLine(text);
+        int end = line.indexOf(". ");
+        return end > 0 ? line.substring(0, end + 1) : line;
+    }
+
+    private static String oneLine(String text) {
+        return text.replaceAll("\\s+", " ").trim();
+    }
+
+    private class Exchange {
+        private final long index;
+        private final String prompt;
+        private final String response;
+
+        private Exchange(long index, String prompt, String response) {
+            this.index = index;
+            this.prompt = prompt;
+            this.response = response;
+        }
+
+        private int tokens() {
+            return tokenCounter.count(new OpenAIRequest.Message("user", prompt))
+                    + tokenCounter.count(new OpenAIRequest.Message("assistant", response));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.taskmanager.chat.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// One-shot removal of the keys written before sessions moved to the chat:session: hash and chat:messages: list
+// layout. Those values are no longer read and were stored without an expiry, so nothing else ever frees them.
+// Keys are found with SCAN a page at a time and unlinked per page; a marker key records completion, so later
+// starts skip the scan. Instances that start together may both run it, which is harmless.
+@Service
+public class LegacyChatKeyCleanup {
+
+    private static final String DONE_KEY = "chat:migrations:legacy-keys-removed";
+    private static final List<String> LEGACY_PATTERNS = List.of("chat_session:*", "chat_message:*", "user_sessions:*");
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final int pageSize;
+
+    public LegacyChatKeyCleanup(ReactiveStringRedisTemplate redisTemplate,
+                                @Value("${app.chat.storage.legacy-cleanup.enabled:true}") boolean enabled,
+                                @Value("${app.chat.storage.legacy-cleanup.page-size:500}") int pageSize) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void removeLegacyKeys() {
+        if (!enabled) {
+            return;
+        }
+
+        // Runs in the background so startup does not wait on a keyspace scan
+        redisTemplate.hasKey(DONE_KEY)
+                .filter(done -> !done)
+                .flatMap(notDone -> Flux.fromIterable(LEGACY_PATTERNS)
+                        .concatMap(this::unlinkMatching)
+                        .reduce(0L, Long::sum))
+                .flatMap(removed -> redisTemplate.opsForValue().set(DONE_KEY, LocalDateTime.now().toString())
+                        .thenReturn(removed))
+                .subscribe(
+                        removed -> System.out.println("Removed " + removed + " chat keys left from the old storage layout"),
+                        error -> System.err.println("Legacy chat key cleanup failed: " + error.getMessage()));
+    }
+
+    private Mono<Long> unlinkMatching(String pattern) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(pageSize).build();
+        return redisTemplate.scan(options)
+                .buffer(pageSize)
+                .concatMap(keys -> redisTemplate.unlink(Flux.fromIterable(keys)))
+                .reduce(0L, Long::sum);
+    }
+}
@@ -0,0 +1,114 @@
+package com.taskmanager.chat.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+// MinHash signatures over word unigram and bigram shingles; the share of equal slots between two signatures
+// estimates the Jaccard similarity of their shingle sets
+public final class MinHash {
+
+    private final int numHashes;
+    private final long[] seeds;
+
+    public MinHash(int numHashes) {
+        this.numHashes = numHashes;
+        this.seeds = new long[numHashes];
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < numHashes; i++) {
+            seed = mix(seed + 0x9E3779B97F4A7C15L);
+            seeds[i] = seed;
+        }
+    }
+
+    public long[] signature(String text) {
+        long[] signature = new long[numHashes];
+        Arrays.fill(signature, Long.MAX_VALUE);
+
+        for (String shingle : shingles(text)) {
+            long base = fnv1a(shingle);
+            for (int i = 0; i < numHashes; i++) {
+                long hash = mix(base ^ seeds[i]);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public static double similarity(long[] a, long[] b) {
+        if (a.length != b.length || a.length == 0) {
+            return 0;
+        }
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    // Hash of one LSH band; signatures that agree on every row of any band land in the same bucket
+    public static long bandHash(long[] signature, int band, int rowsPerBand) {
+        long hash = 0xCBF29CE484222325L + band;
+        for (int row = band * rowsPerBand; row < (band + 1) * rowsPerBand; row++) {
+            hash = mix(hash ^ signature[row]);
+        }
+        return hash;
+    }
+
+    public static String encode(long[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Long.BYTES);
+        for (long value : signature) {
+            buffer.putLong(value);
+        }
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    public static long[] decode(String encoded) {
+        ByteBuffer buffer = ByteBuffer.wrap(Base64.getDecoder().decode(encoded));
+        long[] signature = new long[buffer.remaining() / Long.BYTES];
+        for (int i = 0; i < signature.length; i++) {
+            signature[i] = buffer.getLong();
+        }
+        return signature;
+    }
+
+    private static Set<String> shingles(String text) {
+        String[] words = text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        Set<String> shingles = new LinkedHashSet<>();
+        String previous = null;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            shingles.add(word);
+            if (previous != null) {
+                shingles.add(previous + ' ' + word);
+            }
+            previous = word;
+        }
+        return shingles;
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,311 @@
+package com.taskmanager.chat.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Caches completions by a hash of the normalized (prompt, context, model), with an optional MinHash/LSH lookup
+// that also matches near-identical prompts asked with the same context and model
+@Service
+public class ResponseCacheService {
+
+    private static final String ENTRY_KEY_PREFIX = "chat_cache:entry:";
+    private static final String BUCKET_KEY_PREFIX = "chat_cache:band:";
+    private static final String LRU_KEY = "chat_cache:lru";
+
+    private static final String FIELD_ANSWER = "answer";
+    private static final String FIELD_SIGNATURE = "sig";
+    private static final String FIELD_SCOPE = "scope";
+
+    @Autowired
+    private ReactiveStringRedisTemplate redisTemplate;
+
+    @Value("${app.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.response-cache.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${app.response-cache.max-entries:50000}")
+    private long maxEntries;
+
+    @Value("${app.response-cache.similarity.enabled:false}")
+    private boolean similarityEnabled;
+
+    @Value("${app.response-cache.similarity.threshold:0.8}")
+    private double similarityThreshold;
+
+    @Value("${app.response-cache.similarity.max-candidates:32}")
+    private int maxCandidates;
+
+    @Value("${app.response-cache.similarity.max-bucket-size:64}")
+    private int maxBucketSize;
+
+    private final MinHash minHash;
+    private final int bands;
+    private final int rowsPerBand;
+
+    private final AtomicLong exactHits = new AtomicLong();
+    private final AtomicLong similarHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Counter evictionCounter;
+
+    public ResponseCacheService(MeterRegistry meterRegistry,
+                                @Value("${app.response-cache.similarity.bands:16}") int bands,
+                                @Value("${app.response-cache.similarity.rows-per-band:4}") int rowsPerBand) {
+        this.bands = bands;
+        this.rowsPerBand = rowsPerBand;
+        this.minHash = new MinHash(bands * rowsPerBand);
+
+        meterRegistry.more().counter("chat.cache.lookups", Tags.of("result", "exact"), exactHits);
+        meterRegistry.more().counter("chat.cache.lookups", Tags.of("result", "similar"), similarHits);
+        meterRegistry.more().counter("chat.cache.lookups", Tags.of("result", "miss"), misses);
+        meterRegistry.gauge("chat.cache.hit.ratio", this, ResponseCacheService::getHitRatio);
+        this.evictionCounter = meterRegistry.counter("chat.cache.evictions");
+    }
+
+    public Mono<String> lookup(String prompt, String context, String model) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+
+        CacheKey key = new CacheKey(prompt, context, model);
+        return redisTemplate.<String, String>opsForHash().get(ENTRY_KEY_PREFIX + key.exact, FIELD_ANSWER)
+                .doOnNext(answer -> {
+                    exactHits.incrementAndGet();
+                    touch(key.exact);
+                })
+                .switchIfEmpty(Mono.defer(() -> similarityEnabled ? findSimilar(key) : Mono.empty()))
+                .switchIfEmpty(Mono.fromRunnable(misses::incrementAndGet))
+                .onErrorResume(error -> {
+                    // The cache is an optimization; a Redis problem must not fail the chat request
+                    System.err.println("Response cache lookup failed: " + error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<Void> store(String prompt, String context, String model, String answer) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+
+        CacheKey key = new CacheKey(prompt, context, model);
+        String entryKey = ENTRY_KEY_PREFIX + key.exact;
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+
+        List<Mono<?>> writes = new ArrayList<>();
+        writes.add(redisTemplate.<String, String>opsForHash()
+                .putAll(entryKey, Map.of(FIELD_ANSWER, answer, FIELD_SIGNATURE, MinHash.encode(key.signature()),
+                        FIELD_SCOPE, key.scope))
+                .then(redisTemplate.expire(entryKey, ttl)));
+        writes.add(redisTemplate.opsForZSet().add(LRU_KEY, key.exact, System.currentTimeMillis()));
+
+        if (similarityEnabled && key.hasShingles()) {
+            long now = System.currentTimeMillis();
+            for (String bucketKey : key.bucketKeys()) {
+                // Buckets are scored by store time and trimmed to the most recent max-bucket-size members
+                writes.add(redisTemplate.opsForZSet().add(bucketKey, key.exact, now)
+                        .then(redisTemplate.opsForZSet().removeRange(bucketKey, Range.closed(0L, -(long) maxBucketSize - 1)))
+                        .then(redisTemplate.expire(bucketKey, ttl)));
+            }
+        }
+
+        return Mono.when(writes)
+                .then(evictIfFull())
+                .onErrorResume(error -> {
+                    System.err.println("Response cache store failed: " + error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public double getHitRatio() {
+        long hits = exactHits.get() + similarHits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    private Mono<String> findSimilar(CacheKey key) {
+        if (!key.hasShingles()) {
+            return Mono.empty();
+        }
+
+        long[] signature = key.signature();
+        List<String> bucketKeys = key.bucketKeys();
+
+        // Prompts that share more bands with this one are likelier matches, so candidates are ranked by
+        // the number of buckets they share, newest first within each bucket, before the cap applies
+        return Flux.fromIterable(bucketKeys)
+                .flatMap(bucketKey -> redisTemplate.opsForZSet()
+                        .reverseRange(bucketKey, Range.closed(0L, (long) maxCandidates - 1)))
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()))
+                .flatMapMany(counts -> Flux.fromStream(counts.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                        .limit(maxCandidates)
+                        .map(Map.Entry::getKey)))
+                .flatMap(candidate -> redisTemplate.<String, String>opsForHash()
+                        .multiGet(ENTRY_KEY_PREFIX + candidate, List.of(FIELD_ANSWER, FIELD_SIGNATURE))
+                        .flatMap(fields -> {
+                            if (fields.get(0) == null || fields.get(1) == null) {
+                                // The entry expired; drop it from this prompt's buckets on the way
+                                return removeFromBuckets(candidate, bucketKeys).then(Mono.empty());
+                            }
+                            return Mono.just(new Candidate(candidate, fields.get(0),
+                                    MinHash.similarity(signature, MinHash.decode(fields.get(1)))));
+                        }))
+                .filter(candidate -> candidate.similarity >= similarityThreshold)
+                .reduce((a, b) -> a.similarity >= b.similarity ? a : b)
+                .doOnNext(candidate -> {
+                    similarHits.incrementAndGet();
+                    touch(candidate.exact);
+                })
+                .map(candidate -> candidate.answer);
+    }
+
+    private void touch(String exact) {
+        redisTemplate.opsForZSet().add(LRU_KEY, exact, System.currentTimeMillis())
+                .subscribe(null, error -> System.err.println("Response cache touch failed: " + error.getMessage()));
+    }
+
+    // Approximate LRU: the sorted set orders entries by last use, and the least recently used are dropped
+    // once the cache grows past max-entries, together with their LSH bucket memberships
+    private Mono<Void> evictIfFull() {
+        return redisTemplate.opsForZSet().size(LRU_KEY)
+                .filter(size -> size > maxEntries)
+                .flatMapMany(size -> redisTemplate.opsForZSet().range(LRU_KEY, Range.closed(0L, size - maxEntries - 1)))
+                .collectList()
+                .filter(evicted -> !evicted.isEmpty())
+                .flatMap(evicted -> {
+                    evictionCounter.increment(evicted.size());
+                    return Flux.fromIterable(evicted)
+                            .flatMap(this::removeFromBuckets)
+                            .then(redisTemplate.unlink(Flux.fromIterable(evicted).map(exact -> ENTRY_KEY_PREFIX + exact)))
+                            .then(redisTemplate.opsForZSet().remove(LRU_KEY, evicted.toArray()));
+                })
+                .then();
+    }
+
+    // Reads the scope and signature back from the entry; entries that already expired are left to bucket trimming
+    private Mono<Void> removeFromBuckets(String exact) {
+        if (!similarityEnabled) {
+            return Mono.empty();
+        }
+
+        return redisTemplate.<String, String>opsForHash()
+                .multiGet(ENTRY_KEY_PREFIX + exact, List.of(FIELD_SCOPE, FIELD_SIGNATURE))
+                .filter(fields -> fields.get(0) != null && fields.get(1) != null)
+                .map(fields -> bucketKeys(fields.get(0), MinHash.decode(fields.get(1))))
+                .filter(bucketKeys -> !bucketKeys.isEmpty())
+                .flatMap(bucketKeys -> removeFromBuckets(exact, bucketKeys));
+    }
+
+    private Mono<Void> removeFromBuckets(String exact, List<String> bucketKeys) {
+        return Flux.fromIterable(bucketKeys)
+                .flatMap(bucketKey -> redisTemplate.opsForZSet().remove(bucketKey, exact))
+                .then();
+    }
+
+    private List<String> bucketKeys(String scope, long[] signature) {
+        if (signature.length == 0 || signature[0] == Long.MAX_VALUE) {
+            return List.of();
+        }
+
+        List<String> keys = new ArrayList<>(bands);
+        for (int band = 0; band < bands; band++) {
+            keys.add(BUCKET_KEY_PREFIX + scope + ':' + band + ':'
+                    + Long.toHexString(MinHash.bandHash(signature, band, rowsPerBand)));
+        }
+        return keys;
+    }
+
+    // Identity of a completion request: the normalized prompt within its (context, model) scope
+    static String requestKey(String prompt, String context, String model) {
+        return exactKey(scopeOf(context, model), normalize(prompt));
+    }
+
+    private static String scopeOf(String context, String model) {
+        return sha256(model + '\u0000' + normalize(context)).substring(0, 16);
+    }
+
+    private static String exactKey(String scope, String normalizedPrompt) {
+        return sha256(scope + '\u0000' + normalizedPrompt);
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return normalized.replaceAll("[\\s?!.]+$", "");
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class CacheKey {
+        private final String prompt;
+        private final String scope;
+        private final String exact;
+        private long[] signature;
+
+        private CacheKey(String prompt, String context, String model) {
+            this.prompt = normalize(prompt);
+            // Similar prompts only match within the same context and model
+            this.scope = scopeOf(context, model);
+            this.exact = exactKey(scope, this.prompt);
+        }
+
+        private long[] signature() {
+            if (signature == null) {
+                signature = minHash.signature(prompt);
+            }
+            return signature;
+        }
+
+        private boolean hasShingles() {
+            return signature()[0] != Long.MAX_VALUE;
+        }
+
+        private List<String> bucketKeys() {
+            return ResponseCacheService.this.bucketKeys(scope, signature());
+        }
+    }
+
+    private static class Candidate {
+        private final String exact;
+        private final String answer;
+        private final double similarity;
+
+        private Candidate(String exact, String answer, double similarity) {
+            this.exact = exact;
+            this.answer = answer;
+            this.similarity = similarity;
+        }
+    }
+}
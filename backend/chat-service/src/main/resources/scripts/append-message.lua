@@ -0,0 +1,25 @@
+-- Appends a message to a session's history and touches the session in one step.
+-- KEYS[1] session hash, KEYS[2] message list, KEYS[3] summary hash, KEYS[4] user's session index
+-- ARGV[1] serialized message, ARGV[2] last activity time, ARGV[3] title to set while the session has at most
+-- two messages ('' to leave the title alone), ARGV[4] session time to live in milliseconds,
+-- ARGV[5] last activity score (epoch millis), ARGV[6] session id
+-- Returns the new message count, or 0 when the session no longer exists.
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return 0
+end
+
+local count = redis.call('RPUSH', KEYS[2], ARGV[1])
+redis.call('HSET', KEYS[1], 'messageCount', count, 'lastActivityAt', ARGV[2])
+if ARGV[3] ~= '' and count <= 2 then
+    redis.call('HSET', KEYS[1], 'title', ARGV[3])
+end
+if redis.call('HGET', KEYS[1], 'active') ~= 'false' then
+    redis.call('ZADD', KEYS[4], ARGV[5], ARGV[6])
+end
+
+-- Activity slides the expiry of everything the session owns; the summary may not exist yet
+redis.call('PEXPIRE', KEYS[1], ARGV[4])
+redis.call('PEXPIRE', KEYS[2], ARGV[4])
+redis.call('PEXPIRE', KEYS[3], ARGV[4])
+redis.call('PEXPIRE', KEYS[4], ARGV[4])
+return count
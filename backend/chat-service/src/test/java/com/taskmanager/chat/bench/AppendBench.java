@@ -0,0 +1,126 @@
+package com.taskmanager.chat.bench;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Appends per second for the ways of adding a message to a session: separate RPUSH and HSET, the same pair in
+// MULTI/EXEC, and the scripts/append-message.lua script that ChatSessionRepository runs, each sequentially and,
+// for the plain commands and the script, with 64 appends in flight on one shared connection as the reactive
+// template issues them.
+//
+// Run from backend/chat-service after mvn test-compile, against a scratch Redis (it writes bench:append:* keys):
+//   java -cp "target/test-classes:target/classes:$(cat cp.txt)" com.taskmanager.chat.bench.AppendBench [redis://127.0.0.1:6379]
+// where cp.txt comes from mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+public class AppendBench {
+
+    private static final int APPENDS = 20000;
+    private static final int IN_FLIGHT = 64;
+
+    private static final String SESSION_KEY = "bench:append:session";
+    private static final String MESSAGES_KEY = "bench:append:messages";
+    private static final String[] SCRIPT_KEYS = {SESSION_KEY, MESSAGES_KEY, "bench:append:summary", "bench:append:index"};
+    private static final String TTL_MS = "86400000";
+
+    private static final String MESSAGE = "{\"@class\":\"com.taskmanager.chat.entity.ChatMessage\",\"id\":\"x\"," +
+            "\"message\":\"How should I prioritize the tasks due this week?\"," +
+            "\"response\":\"Use the Eisenhower Matrix.\",\"type\":\"TEXT\"}";
+
+    public static void main(String[] args) throws Exception {
+        RedisClient client = RedisClient.create(args.length > 0 ? args[0] : "redis://127.0.0.1:6379");
+        StatefulRedisConnection<String, String> connection = client.connect();
+        RedisCommands<String, String> sync = connection.sync();
+        RedisAsyncCommands<String, String> async = connection.async();
+        String sha = sync.scriptLoad(loadScript());
+
+        // The first round only warms up the JIT and the connection
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            sequential(report, sync, "separate RPUSH + HSET, sequential", () -> {
+                long count = sync.rpush(MESSAGES_KEY, MESSAGE);
+                sync.hset(SESSION_KEY, Map.of("messageCount", String.valueOf(count),
+                        "lastActivityAt", "2026-10-18T22:00"));
+            });
+            sequential(report, sync, "MULTI/EXEC, sequential", () -> {
+                sync.multi();
+                sync.rpush(MESSAGES_KEY, MESSAGE);
+                sync.hset(SESSION_KEY, Map.of("messageCount", "1", "lastActivityAt", "2026-10-18T22:00"));
+                sync.exec();
+            });
+            sequential(report, sync, "EVALSHA script, sequential", () ->
+                    sync.evalsha(sha, ScriptOutputType.INTEGER, SCRIPT_KEYS, scriptArgs()));
+            concurrent(report, sync, "separate RPUSH + HSET, 64 in flight", () ->
+                    async.rpush(MESSAGES_KEY, MESSAGE)
+                            .thenCompose(count -> async.hset(SESSION_KEY, Map.of("messageCount", String.valueOf(count),
+                                    "lastActivityAt", "2026-10-18T22:00")))
+                            .toCompletableFuture());
+            concurrent(report, sync, "EVALSHA script, 64 in flight", () ->
+                    async.<Long>evalsha(sha, ScriptOutputType.INTEGER, SCRIPT_KEYS, scriptArgs()).toCompletableFuture());
+        }
+
+        sync.del(SCRIPT_KEYS);
+        connection.close();
+        client.shutdown();
+    }
+
+    private static String[] scriptArgs() {
+        return new String[]{MESSAGE, "2026-10-18T22:00", "", TTL_MS, String.valueOf(System.currentTimeMillis()), "bench"};
+    }
+
+    private static String loadScript() throws IOException {
+        try (InputStream script = AppendBench.class.getClassLoader().getResourceAsStream("scripts/append-message.lua")) {
+            if (script == null) {
+                throw new IllegalStateException("scripts/append-message.lua not on the classpath; add target/classes");
+            }
+            return new String(script.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void reset(RedisCommands<String, String> sync) {
+        sync.del(SCRIPT_KEYS);
+        sync.hset(SESSION_KEY, "sessionId", "bench");
+    }
+
+    private static void sequential(boolean report, RedisCommands<String, String> sync, String name, Runnable append) {
+        reset(sync);
+        long start = System.nanoTime();
+        for (int i = 0; i < APPENDS; i++) {
+            append.run();
+        }
+        print(report, name, start);
+    }
+
+    private static void concurrent(boolean report, RedisCommands<String, String> sync, String name,
+                                   Supplier<CompletableFuture<?>> append) throws InterruptedException {
+        reset(sync);
+        Semaphore inFlight = new Semaphore(IN_FLIGHT);
+        CountDownLatch done = new CountDownLatch(APPENDS);
+        long start = System.nanoTime();
+        for (int i = 0; i < APPENDS; i++) {
+            inFlight.acquire();
+            append.get().whenComplete((result, error) -> {
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        print(report, name, start);
+    }
+
+    private static void print(boolean report, String name, long start) {
+        if (report) {
+            System.out.printf("%-40s %8.0f appends/s%n", name, APPENDS / ((System.nanoTime() - start) / 1e9));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.taskmanager.chat.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Closed-loop load against POST /chat/message: keeps <concurrency> requests in flight until <total> have
+// completed, spread over 500 user ids, and prints throughput and p50/p99 latency.
+// [distinct] limits the number of different prompts, which exercises the response cache.
+//
+// Run from backend/chat-service after mvn test-compile, with chat-service pointed at MockCompletionServer:
+//   java -cp target/test-classes com.taskmanager.chat.bench.ChatLoadGenerator \
+//       http://localhost:8084/chat/message 500 5000
+public class ChatLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: ChatLoadGenerator <url> <concurrency> <total> [distinct]");
+            System.exit(1);
+        }
+
+        String url = args[0];
+        int concurrency = Integer.parseInt(args[1]);
+        int total = Integer.parseInt(args[2]);
+        int distinct = args.length > 3 ? Integer.parseInt(args[3]) : total;
+        // Prompts are unique per run, so an earlier run's cached answers do not skew the numbers
+        long run = System.currentTimeMillis();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(8))
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(total);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < total; i++) {
+            inFlight.acquire();
+            long sentAt = System.nanoTime();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(60))
+                    .header("Content-Type", "application/json")
+                    .header("X-User-Id", String.valueOf(1 + i % 500))
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"message\":\"how do I prioritize task " + run + "-" + (i % distinct) + "\"}"))
+                    .build();
+
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+                if (error == null && response.statusCode() == 200) {
+                    succeeded.incrementAndGet();
+                } else if (failed.incrementAndGet() <= 5) {
+                    System.out.println("Request failed: " + (error != null ? error : response.statusCode() + " " + response.body()));
+                }
+                latencies.add((System.nanoTime() - sentAt) / 1_000_000);
+                inFlight.release();
+                done.countDown();
+            });
+        }
+
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        System.out.printf("ok=%d failed=%d time=%.1fs rps=%.0f p50=%dms p99=%dms%n",
+                succeeded.get(), failed.get(), seconds, total / seconds,
+                sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.99)]);
+        System.exit(0);
+    }
+}
@@ -0,0 +1,160 @@
+package com.taskmanager.chat.bench;
+
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.taskmanager.chat.entity.ChatMessage;
+import com.taskmanager.chat.repository.ChatMessageCodec;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+// Redis memory per 1M chat messages for the old JSON values and ChatMessageCodec with and without LZ4.
+// Generates 100k messages (half prompts, half replies, one reply in five a long multi-paragraph answer),
+// RPUSHes them 50 per session list and scales the used_memory delta. First checks that every field
+// round-trips through both codec settings and that legacy JSON values still decode.
+//
+// Run from backend/chat-service after mvn test-compile. It FLUSHDBs the given database, 15 by default:
+//   java -cp "target/test-classes:target/classes:$(cat cp.txt)" com.taskmanager.chat.bench.MemoryReport [redis://127.0.0.1:6379/15]
+// where cp.txt comes from mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+public class MemoryReport {
+
+    private static final int MESSAGES = 100_000;
+    private static final int PER_SESSION = 50;
+
+    private static final String[] PROMPTS = {
+            "How do I prioritize my tasks this week?",
+            "Any productivity tips for working from home?",
+            "What's a good way to handle deadlines when everything is urgent?",
+            "hi",
+            "How should I organize tasks for a new project with three teammates?"
+    };
+
+    private static final String[] ANSWERS = {
+            "For task prioritization, I recommend using the Eisenhower Matrix: Important & Urgent (do first), " +
+                    "Important & Not Urgent (schedule), Not Important & Urgent (delegate), Not Important & Not Urgent (eliminate).",
+            "Here are some productivity tips: 1) Use time-blocking to schedule tasks, 2) Apply the Pomodoro Technique " +
+                    "(25min work + 5min break), 3) Batch similar tasks together, 4) Eliminate distractions during focused work time.",
+            "Managing deadlines effectively: 1) Break large tasks into smaller milestones, 2) Set internal deadlines " +
+                    "before actual due dates, 3) Use calendar reminders and notifications, 4) Review and adjust priorities regularly."
+    };
+
+    public static void main(String[] args) {
+        List<ChatMessage> messages = generate();
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer();
+        json.configure(mapper -> mapper.registerModule(new JavaTimeModule()));
+        ChatMessageCodec compressed = new ChatMessageCodec(true, 512);
+        ChatMessageCodec plain = new ChatMessageCodec(false, 512);
+
+        verifyRoundTrips(messages.subList(0, 2000), json, compressed, plain);
+
+        RedisClient client = RedisClient.create(args.length > 0 ? args[0] : "redis://127.0.0.1:6379/15");
+        StatefulRedisConnection<byte[], byte[]> connection = client.connect(ByteArrayCodec.INSTANCE);
+        RedisCommands<byte[], byte[]> redis = connection.sync();
+
+        System.out.printf("%-34s %12s %14s %10s%n", "format", "avg value B", "Redis MB / 1M", "vs JSON");
+        double jsonMb = measure(redis, messages, "JSON (GenericJackson2Json)", json::serialize, 0);
+        measure(redis, messages, "binary v1, no compression", plain::encode, jsonMb);
+        measure(redis, messages, "binary v1 + LZ4 >= 512B", compressed::encode, jsonMb);
+
+        connection.close();
+        client.shutdown();
+    }
+
+    private static void verifyRoundTrips(List<ChatMessage> messages, GenericJackson2JsonRedisSerializer json,
+                                         ChatMessageCodec... codecs) {
+        for (ChatMessage message : messages) {
+            for (ChatMessageCodec codec : codecs) {
+                ChatMessage decoded = codec.decode(codec.encode(message));
+                if (!sameMessage(decoded, message) || !decoded.getTimestamp().equals(message.getTimestamp())) {
+                    throw new IllegalStateException("Message " + message.getId() + " did not round-trip");
+                }
+            }
+
+            // Legacy JSON carried timestamps at second precision
+            ChatMessage legacy = codecs[0].decode(json.serialize(message));
+            if (!sameMessage(legacy, message) || !legacy.getTimestamp().equals(message.getTimestamp().withNano(0))) {
+                throw new IllegalStateException("Legacy JSON for message " + message.getId() + " did not decode");
+            }
+        }
+    }
+
+    private static boolean sameMessage(ChatMessage a, ChatMessage b) {
+        return Objects.equals(a.getId(), b.getId())
+                && Objects.equals(a.getUserId(), b.getUserId())
+                && Objects.equals(a.getSessionId(), b.getSessionId())
+                && Objects.equals(a.getMessage(), b.getMessage())
+                && Objects.equals(a.getResponse(), b.getResponse())
+                && a.getType() == b.getType()
+                && a.isFromUser() == b.isFromUser();
+    }
+
+    private static double measure(RedisCommands<byte[], byte[]> redis, List<ChatMessage> messages, String name,
+                                  Function<ChatMessage, byte[]> encoder, double jsonMb) {
+        redis.flushdb();
+        long before = usedMemory(redis);
+        long bytes = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            byte[] value = encoder.apply(messages.get(i));
+            bytes += value.length;
+            redis.rpush(("chat:messages:bench-" + (i / PER_SESSION)).getBytes(StandardCharsets.UTF_8), value);
+        }
+
+        double perMillionMb = (usedMemory(redis) - before) * (1_000_000.0 / messages.size()) / (1024 * 1024);
+        System.out.printf("%-34s %12d %14.0f %10s%n", name, bytes / messages.size(), perMillionMb,
+                jsonMb == 0 ? "-" : String.format("%.0f%%", 100 * perMillionMb / jsonMb));
+        redis.flushdb();
+        return perMillionMb;
+    }
+
+    private static long usedMemory(RedisCommands<byte[], byte[]> redis) {
+        for (String line : redis.info("memory").split("\r\n")) {
+            if (line.startsWith("used_memory:")) {
+                return Long.parseLong(line.substring("used_memory:".length()));
+            }
+        }
+        throw new IllegalStateException("used_memory missing from INFO memory");
+    }
+
+    private static List<ChatMessage> generate() {
+        // Fixed seed, so every run measures the same messages
+        Random random = new Random(42);
+        List<ChatMessage> messages = new ArrayList<>();
+        String sessionId = null;
+
+        for (int i = 0; i < MESSAGES; i += 2) {
+            if (i % PER_SESSION == 0) {
+                sessionId = UUID.randomUUID().toString();
+            }
+            long userId = 1 + random.nextInt(50_000);
+            String prompt = PROMPTS[random.nextInt(PROMPTS.length)];
+
+            ChatMessage user = new ChatMessage(userId, sessionId, prompt, true);
+            user.setId(UUID.randomUUID().toString());
+
+            ChatMessage reply = new ChatMessage(userId, sessionId, prompt, false);
+            reply.setId(UUID.randomUUID().toString());
+            StringBuilder answer = new StringBuilder(ANSWERS[random.nextInt(ANSWERS.length)]);
+            if (random.nextInt(5) == 0) {
+                for (int paragraph = 0; paragraph < 6; paragraph++) {
+                    answer.append("\n\n").append(ANSWERS[random.nextInt(ANSWERS.length)])
+                            .append(" Step ").append(paragraph + 1)
+                            .append(" applies to task ").append(random.nextInt(1000)).append('.');
+                }
+            }
+            reply.setResponse(answer.toString());
+
+            messages.add(user);
+            messages.add(reply);
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,54 @@
+package com.taskmanager.chat.bench;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Stand-in for the completions API that answers every request after a fixed delay, so load tests measure
+// chat-service rather than the upstream model.
+//
+// Run from backend/chat-service after mvn test-compile:
+//   java -cp target/test-classes com.taskmanager.chat.bench.MockCompletionServer 9099 1000
+// and start chat-service with --openai.api.enabled=true --openai.api.url=http://127.0.0.1:9099/v1/chat/completions
+public class MockCompletionServer {
+
+    private static final byte[] RESPONSE = ("{\"id\":\"mock\",\"choices\":[{\"index\":0,\"message\":" +
+            "{\"role\":\"assistant\",\"content\":\"Mock answer\"},\"finish_reason\":\"stop\"}]}")
+            .getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9099;
+        long delayMs = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        boolean logRequests = System.getenv("MOCK_LOG") != null;
+
+        // Replies are scheduled rather than slept on, so thousands of requests can wait at once on a few threads
+        ScheduledExecutorService timer = Executors.newScheduledThreadPool(4);
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 4096);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/v1/chat/completions", exchange -> {
+            String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (logRequests) {
+                System.out.println(request);
+            }
+
+            timer.schedule(() -> {
+                try {
+                    exchange.getResponseHeaders().add("Content-Type", "application/json");
+                    exchange.sendResponseHeaders(200, RESPONSE.length);
+                    exchange.getResponseBody().write(RESPONSE);
+                } catch (IOException e) {
+                    System.err.println("Failed to answer mock completion: " + e.getMessage());
+                } finally {
+                    exchange.close();
+                }
+            }, delayMs, TimeUnit.MILLISECONDS);
+        });
+        server.start();
+        System.out.println("Mock completion server listening on " + port + " with " + delayMs + "ms delay");
+    }
+}
@@ -0,0 +1,113 @@
+package com.taskmanager.chat.bench;
+
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.sync.RedisCommands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Compares one command per key against pipelined and multi-key reads for loading a chat history and a
+// sessions list: GET per message (sequential and pipelined), MGET, a single LRANGE, and HGETALL per session
+// (sequential and pipelined). Prints p50/p99 per variant after one warm-up round.
+//
+// Run from backend/chat-service after mvn test-compile, against a scratch Redis (it writes bench:* keys):
+//   java -cp "target/test-classes:$(cat cp.txt)" com.taskmanager.chat.bench.RedisBatchBench [redis://127.0.0.1:6379]
+// where cp.txt comes from mvn dependency:build-classpath -Dmdep.outputFile=cp.txt
+public class RedisBatchBench {
+
+    private static final int MESSAGES = 500;
+    private static final int SESSIONS = 100;
+    private static final int ITERATIONS = 200;
+
+    private static final String MESSAGE = "{\"@class\":\"com.taskmanager.chat.entity.ChatMessage\",\"id\":\"%s\"," +
+            "\"userId\":1,\"sessionId\":\"bench\",\"message\":\"How should I prioritize the tasks due this week?\"," +
+            "\"response\":\"For task prioritization, I recommend using the Eisenhower Matrix: Important & Urgent " +
+            "(do first), Important & Not Urgent (schedule).\",\"type\":\"TEXT\",\"timestamp\":[2026,10,18,22,0,0]," +
+            "\"fromUser\":false}";
+
+    public static void main(String[] args) throws Exception {
+        RedisClient client = RedisClient.create(args.length > 0 ? args[0] : "redis://127.0.0.1:6379");
+        StatefulRedisConnection<String, String> connection = client.connect();
+        RedisCommands<String, String> sync = connection.sync();
+        RedisAsyncCommands<String, String> async = connection.async();
+
+        List<String> messageKeys = new ArrayList<>();
+        sync.del("bench:messages");
+        for (int i = 0; i < MESSAGES; i++) {
+            String id = UUID.randomUUID().toString();
+            String message = String.format(MESSAGE, id);
+            messageKeys.add("bench:message:" + id);
+            sync.set("bench:message:" + id, message);
+            sync.rpush("bench:messages", message);
+        }
+
+        List<String> sessionKeys = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            String key = "bench:session:" + i;
+            sessionKeys.add(key);
+            sync.hset(key, Map.of("sessionId", "s" + i, "userId", "1", "title", "Bench", "messageCount", "10",
+                    "createdAt", "2026-10-18T22:00", "lastActivityAt", "2026-10-18T22:00", "active", "true"));
+        }
+        String[] messageKeyArray = messageKeys.toArray(new String[0]);
+
+        // The first round only warms up the JIT and the connection
+        for (int round = 0; round < 2; round++) {
+            boolean report = round == 1;
+            run(report, "500 msgs: GET per message, sequential", MESSAGES, () -> {
+                for (String key : messageKeyArray) {
+                    sync.get(key);
+                }
+            });
+            run(report, "500 msgs: GET per message, pipelined", 1, () -> {
+                List<RedisFuture<String>> futures = new ArrayList<>();
+                for (String key : messageKeyArray) {
+                    futures.add(async.get(key));
+                }
+                LettuceFutures.awaitAll(10, TimeUnit.SECONDS, futures.toArray(new RedisFuture[0]));
+            });
+            run(report, "500 msgs: MGET", 1, () -> sync.mget(messageKeyArray));
+            run(report, "500 msgs: LRANGE 0 -1 (list model)", 1, () -> sync.lrange("bench:messages", 0, -1));
+            run(report, "100 sessions: HGETALL sequential", SESSIONS, () -> {
+                for (String key : sessionKeys) {
+                    sync.hgetall(key);
+                }
+            });
+            run(report, "100 sessions: HGETALL pipelined", 1, () -> {
+                List<RedisFuture<Map<String, String>>> futures = new ArrayList<>();
+                for (String key : sessionKeys) {
+                    futures.add(async.hgetall(key));
+                }
+                LettuceFutures.awaitAll(10, TimeUnit.SECONDS, futures.toArray(new RedisFuture[0]));
+            });
+        }
+
+        sync.del(messageKeyArray);
+        sync.del("bench:messages");
+        sync.del(sessionKeys.toArray(new String[0]));
+        connection.close();
+        client.shutdown();
+    }
+
+    private static void run(boolean report, String name, int roundTrips, Runnable operation) {
+        long[] timings = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            timings[i] = System.nanoTime() - start;
+        }
+
+        if (report) {
+            Arrays.sort(timings);
+            System.out.printf("%-42s round trips=%-4d p50=%7.3fms p99=%7.3fms%n", name, roundTrips,
+                    timings[ITERATIONS / 2] / 1e6, timings[ITERATIONS * 99 / 100] / 1e6);
+        }
+    }
+}
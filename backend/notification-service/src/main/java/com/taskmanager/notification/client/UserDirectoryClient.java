@@ -0,0 +1,37 @@
+package com.taskmanager.notification.client;
+
+import com.taskmanager.notification.dto.UserInfo;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@Component
+public class UserDirectoryClient {
+
+    @Autowired
+    private RestTemplate userServiceRestTemplate;
+
+    @Value("${app.user-directory.url:http://user-service}")
+    private String userServiceUrl;
+
+    public List<UserInfo> getUsersByIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String url = UriComponentsBuilder.fromHttpUrl(userServiceUrl)
+                .path("/internal/users")
+                .queryParam("ids", userIds.toArray())
+                .toUriString();
+
+        UserInfo[] users = userServiceRestTemplate.getForObject(url, UserInfo[].class);
+        return users != null ? Arrays.asList(users) : Collections.emptyList();
+    }
+}
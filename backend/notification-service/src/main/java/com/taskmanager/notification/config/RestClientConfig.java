@@ -0,0 +1,34 @@
+package com.taskmanager.notification.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class RestClientConfig {
+
+    @Value("${app.user-directory.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${app.user-directory.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    @Value("${app.user-directory.api-token:}")
+    private String apiToken;
+
+    @Bean
+    @LoadBalanced
+    public RestTemplate userServiceRestTemplate(RestTemplateBuilder builder) {
+        return builder
+                .setConnectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .setReadTimeout(Duration.ofMillis(readTimeoutMs))
+                // user-service only answers /internal/** for callers presenting the shared token
+                .defaultHeader("X-Internal-Token", apiToken)
+                .build();
+    }
+}
@@ -2,29 +2,91 @@ package com.taskmanager.notification.consumer;
 
 import com.taskmanager.notification.entity.Notification;
 import com.taskmanager.notification.event.TaskEvent;
+import com.taskmanager.notification.service.NotificationPreferenceService;
 import com.taskmanager.notification.service.NotificationService;
+import com.taskmanager.notification.service.TaskEventDeduplicator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @Component
 public class TaskEventConsumer {
 
+    // Map lookup instead of valueOf, which throws (and fills a stack trace) for every unknown event type
+    private static final Map<String, Notification.NotificationType> EVENT_TYPES =
+            Arrays.stream(Notification.NotificationType.values())
+                    .collect(Collectors.toUnmodifiableMap(Enum::name, Function.identity()));
+
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationPreferenceService preferenceService;
+
+    @Autowired
+    private TaskEventDeduplicator deduplicator;
+
+    private final Timer processingTimer;
+    private final Timer endToEndTimer;
+    private final Counter deadLetterCounter;
+
+    public TaskEventConsumer(MeterRegistry meterRegistry) {
+        this.processingTimer = meterRegistry.timer("notifications.task_events.processing");
+        this.endToEndTimer = meterRegistry.timer("notifications.task_events.latency");
+        this.deadLetterCounter = meterRegistry.counter("notifications.task_events.dead_lettered");
+    }
+
+    // Failures move to task-events-retry-N topics with growing delays and finally to task-events-dlt, so the
+    // main partition keeps flowing; deserialization failures are not retryable and go straight to the DLT
+    @RetryableTopic(
+            attempts = "${app.notifications.consumer.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${app.notifications.consumer.retry.initial-delay-ms:1000}",
+                               multiplierExpression = "${app.notifications.consumer.retry.multiplier:5}",
+                               maxDelayExpression = "${app.notifications.consumer.retry.max-delay-ms:60000}"),
+            kafkaTemplate = "taskEventRetryTemplate",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            autoStartDltHandler = "false",
+            autoCreateTopics = "${app.notifications.consumer.retry.auto-create-topics:true}")
     @KafkaListener(topics = "task-events", groupId = "notification-service-group")
     public void handleTaskEvent(TaskEvent taskEvent) {
-        try {
-            processTaskEvent(taskEvent);
-        } catch (Exception e) {
-            System.err.println("Error processing task event: " + e.getMessage());
-            e.printStackTrace();
-        }
+        processingTimer.record(() -> processTaskEvent(taskEvent));
+        recordEndToEndLatency(taskEvent);
+    }
+
+    // Reads raw bytes so records that never deserialized are counted too; the DLT handler generated by
+    // @RetryableTopic is left stopped because its JSON consumer rejects those records before any handler runs
+    @KafkaListener(topics = "task-events-dlt", groupId = "notification-service-group-dlt",
+                   containerFactory = "deadLetterListenerContainerFactory")
+    public void handleDeadLetter(ConsumerRecord<String, byte[]> record) {
+        deadLetterCounter.increment();
+        Header error = record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+        System.err.println("Task event " + record.key() + " at " + record.topic() + "-" + record.partition()
+                + "@" + record.offset() + " moved to dead-letter topic: "
+                + (error != null ? new String(error.value(), StandardCharsets.UTF_8) : null));
     }
 
     private void processTaskEvent(TaskEvent taskEvent) {
-        Notification.NotificationType notificationType = mapEventTypeToNotificationType(taskEvent.getEventType());
+        Notification.NotificationType notificationType =
+                taskEvent.getEventType() != null ? EVENT_TYPES.get(taskEvent.getEventType()) : null;
 
         if (notificationType == null) {
             return; // Ignore unknown event types
@@ -35,37 +97,58 @@ public class TaskEventConsumer {
 
         // Create notification for task owner
         if (taskEvent.getUserId() != null) {
-            notificationService.createNotification(
-                taskEvent.getUserId(),
-                title,
-                message,
-                notificationType,
-                taskEvent.getTaskId()
-            );
+            NotificationPreferenceService.Delivery delivery =
+                    preferenceService.resolve(taskEvent.getUserId(), notificationType);
+
+            if (!delivery.isSuppressed() && !deduplicator.isProcessed(taskEvent.getEventId(), taskEvent.getUserId())) {
+                createNotification(
+                    taskEvent,
+                    taskEvent.getUserId(),
+                    title,
+                    message,
+                    notificationType,
+                    delivery
+                );
+            }
         }
 
         // Create notification for assignee if different from owner
         if (taskEvent.getAssigneeId() != null &&
             !taskEvent.getAssigneeId().equals(taskEvent.getUserId())) {
 
-            String assigneeTitle = generateAssigneeNotificationTitle(taskEvent);
-            String assigneeMessage = generateAssigneeNotificationMessage(taskEvent);
-
-            notificationService.createNotification(
-                taskEvent.getAssigneeId(),
-                assigneeTitle,
-                assigneeMessage,
-                notificationType,
-                taskEvent.getTaskId()
-            );
+            NotificationPreferenceService.Delivery delivery =
+                    preferenceService.resolve(taskEvent.getAssigneeId(), notificationType);
+
+            if (!delivery.isSuppressed() && !deduplicator.isProcessed(taskEvent.getEventId(), taskEvent.getAssigneeId())) {
+                String assigneeTitle = generateAssigneeNotificationTitle(taskEvent);
+                String assigneeMessage = generateAssigneeNotificationMessage(taskEvent);
+
+                createNotification(
+                    taskEvent,
+                    taskEvent.getAssigneeId(),
+                    assigneeTitle,
+                    assigneeMessage,
+                    notificationType,
+                    delivery
+                );
+            }
         }
     }
 
-    private Notification.NotificationType mapEventTypeToNotificationType(String eventType) {
-        try {
-            return Notification.NotificationType.valueOf(eventType);
-        } catch (IllegalArgumentException e) {
-            return null;
+    private void createNotification(TaskEvent taskEvent, Long userId, String title, String message,
+                                    Notification.NotificationType type,
+                                    NotificationPreferenceService.Delivery delivery) {
+        notificationService.createNotification(userId, title, message, type, taskEvent.getTaskId(), delivery);
+        deduplicator.markProcessed(taskEvent.getEventId(), userId);
+    }
+
+    // Time from task-service publishing the event to its notifications being persisted; both sides stamp local time
+    private void recordEndToEndLatency(TaskEvent taskEvent) {
+        if (taskEvent.getEventTimestamp() != null) {
+            Duration latency = Duration.between(taskEvent.getEventTimestamp(), LocalDateTime.now());
+            if (!latency.isNegative()) {
+                endToEndTimer.record(latency);
+            }
         }
     }
 
@@ -136,4 +219,4 @@ public class TaskEventConsumer {
                 return "There's an update on the task '" + taskTitle + "' assigned to you.";
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.taskmanager.notification.consumer;
+
+import com.taskmanager.notification.event.TaskEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerInterceptor;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Map;
+
+// Created by the Kafka client, not Spring; KafkaConfig passes the registry in through the consumer properties
+public class TaskEventPollInterceptor implements ConsumerInterceptor<String, TaskEvent> {
+
+    public static final String METER_REGISTRY_CONFIG = "notification.meter.registry";
+
+    private DistributionSummary pollSize;
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        MeterRegistry meterRegistry = (MeterRegistry) configs.get(METER_REGISTRY_CONFIG);
+        this.pollSize = DistributionSummary.builder("notifications.task_events.poll.records")
+                .baseUnit("records")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ConsumerRecords<String, TaskEvent> onConsume(ConsumerRecords<String, TaskEvent> records) {
+        // Empty polls are skipped so the distribution reflects the batches actually handed to the listener
+        if (!records.isEmpty()) {
+            pollSize.record(records.count());
+        }
+        return records;
+    }
+
+    @Override
+    public void onCommit(Map<TopicPartition, OffsetAndMetadata> offsets) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
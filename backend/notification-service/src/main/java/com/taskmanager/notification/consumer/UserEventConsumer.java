@@ -0,0 +1,24 @@
+package com.taskmanager.notification.consumer;
+
+import com.taskmanager.notification.event.UserEvent;
+import com.taskmanager.notification.service.UserEmailCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserEventConsumer {
+
+    @Autowired
+    private UserEmailCache userEmailCache;
+
+    // Each instance keeps its own cache, so every instance needs every event: the group id is unique per instance
+    // but stable across its restarts, so groups and their offsets are reused rather than orphaned
+    @KafkaListener(topics = "user-events", groupId = "notification-service-users-${app.notifications.consumer.instance-id}",
+                   containerFactory = "userEventListenerContainerFactory")
+    public void handleUserEvent(UserEvent userEvent) {
+        if (userEvent.getUserId() != null) {
+            userEmailCache.invalidate(userEvent.getUserId());
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.notification.controller;
+
+import com.taskmanager.notification.service.TaskEventReplayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Operator endpoints; InternalApiTokenFilter requires the service token on every request
+@RestController
+@RequestMapping("/internal/notifications")
+public class InternalNotificationController {
+
+    @Autowired
+    private TaskEventReplayService replayService;
+
+    @PostMapping("/dead-letters/replay")
+    public ResponseEntity<Map<String, Object>> replayDeadLetters(@RequestParam(defaultValue = "10000") int max) {
+        int replayed = replayService.replay(max);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Dead-lettered task events replayed");
+        response.put("replayed", replayed);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,12 +1,18 @@
 package com.taskmanager.notification.controller;
 
+import com.taskmanager.notification.dto.NotificationFeedResponse;
+import com.taskmanager.notification.dto.NotificationPreferenceDto;
 import com.taskmanager.notification.dto.NotificationResponse;
 import com.taskmanager.notification.entity.Notification;
+import com.taskmanager.notification.service.NotificationPreferenceService;
+import com.taskmanager.notification.service.NotificationPushService;
 import com.taskmanager.notification.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
@@ -19,6 +25,12 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationPushService pushService;
+
+    @Autowired
+    private NotificationPreferenceService preferenceService;
+
     @GetMapping
     public ResponseEntity<List<NotificationResponse>> getUserNotifications(@RequestHeader("X-User-Id") Long userId) {
         List<NotificationResponse> notifications = notificationService.getUserNotifications(userId);
@@ -34,6 +46,33 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<NotificationFeedResponse> getUserNotificationFeed(
+            @RequestHeader("X-User-Id") Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        NotificationFeedResponse feed = notificationService.getUserNotificationFeed(userId, cursor, size);
+        return ResponseEntity.ok(feed);
+    }
+
+    @GetMapping("/preferences")
+    public ResponseEntity<NotificationPreferenceDto> getPreferences(@RequestHeader("X-User-Id") Long userId) {
+        return ResponseEntity.ok(preferenceService.getPreferences(userId));
+    }
+
+    @PutMapping("/preferences")
+    public ResponseEntity<NotificationPreferenceDto> updatePreferences(@RequestHeader("X-User-Id") Long userId,
+                                                                       @RequestBody NotificationPreferenceDto request) {
+        return ResponseEntity.ok(preferenceService.updatePreferences(userId, request));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<NotificationResponse> getNotification(@PathVariable Long id,
+                                                               @RequestHeader("X-User-Id") Long userId) {
+        NotificationResponse notification = notificationService.getNotification(id, userId);
+        return ResponseEntity.ok(notification);
+    }
+
     @GetMapping("/unread")
     public ResponseEntity<List<NotificationResponse>> getUnreadNotifications(@RequestHeader("X-User-Id") Long userId) {
         List<NotificationResponse> notifications = notificationService.getUnreadNotifications(userId);
@@ -49,6 +88,11 @@ public class NotificationController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@RequestHeader("X-User-Id") Long userId) {
+        return pushService.subscribe(userId);
+    }
+
     @GetMapping("/type/{type}")
     public ResponseEntity<List<NotificationResponse>> getNotificationsByType(
             @PathVariable Notification.NotificationType type,
@@ -97,7 +141,7 @@ public class NotificationController {
         notificationService.processUnsentNotifications();
 
         Map<String, String> response = new HashMap<>();
-        response.put("message", "Unsent notifications processed successfully");
-        return ResponseEntity.ok(response);
+        response.put("message", "Unsent notification processing started");
+        return ResponseEntity.accepted().body(response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package com.taskmanager.notification.dto;
+
+import java.util.List;
+
+public class NotificationFeedResponse {
+    private List<NotificationSummary> notifications;
+    private String nextCursor;
+
+    // Constructors
+    public NotificationFeedResponse() {}
+
+    public NotificationFeedResponse(List<NotificationSummary> notifications, String nextCursor) {
+        this.notifications = notifications;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<NotificationSummary> getNotifications() {
+        return notifications;
+    }
+
+    public void setNotifications(List<NotificationSummary> notifications) {
+        this.notifications = notifications;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,58 @@
+package com.taskmanager.notification.dto;
+
+import com.taskmanager.notification.entity.Notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class NotificationPreferenceDto {
+    private List<Notification.NotificationType> inAppDisabled = new ArrayList<>();
+    private List<Notification.NotificationType> emailDisabled = new ArrayList<>();
+    private String quietHoursStart;
+    private String quietHoursEnd;
+    private String timeZone;
+
+    // Constructors
+    public NotificationPreferenceDto() {}
+
+    // Getters and Setters
+    public List<Notification.NotificationType> getInAppDisabled() {
+        return inAppDisabled;
+    }
+
+    public void setInAppDisabled(List<Notification.NotificationType> inAppDisabled) {
+        this.inAppDisabled = inAppDisabled;
+    }
+
+    public List<Notification.NotificationType> getEmailDisabled() {
+        return emailDisabled;
+    }
+
+    public void setEmailDisabled(List<Notification.NotificationType> emailDisabled) {
+        this.emailDisabled = emailDisabled;
+    }
+
+    public String getQuietHoursStart() {
+        return quietHoursStart;
+    }
+
+    public void setQuietHoursStart(String quietHoursStart) {
+        this.quietHoursStart = quietHoursStart;
+    }
+
+    public String getQuietHoursEnd() {
+        return quietHoursEnd;
+    }
+
+    public void setQuietHoursEnd(String quietHoursEnd) {
+        this.quietHoursEnd = quietHoursEnd;
+    }
+
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+}
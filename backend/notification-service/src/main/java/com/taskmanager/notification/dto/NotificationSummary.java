@@ -0,0 +1,97 @@
+package com.taskmanager.notification.dto;
+
+import com.taskmanager.notification.entity.Notification;
+
+import java.time.LocalDateTime;
+
+// List view of a notification; leaves out the TEXT message so feed queries never load it
+public class NotificationSummary {
+    private Long id;
+    private Long userId;
+    private String title;
+    private Notification.NotificationType type;
+    private String taskId;
+    private boolean isRead;
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+
+    // Constructors
+    public NotificationSummary() {}
+
+    public NotificationSummary(Long id, Long userId, String title, Notification.NotificationType type,
+                               String taskId, boolean isRead, LocalDateTime createdAt, LocalDateTime readAt) {
+        this.id = id;
+        this.userId = userId;
+        this.title = title;
+        this.type = type;
+        this.taskId = taskId;
+        this.isRead = isRead;
+        this.createdAt = createdAt;
+        this.readAt = readAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Notification.NotificationType getType() {
+        return type;
+    }
+
+    public void setType(Notification.NotificationType type) {
+        this.type = type;
+    }
+
+    public String getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(String taskId) {
+        this.taskId = taskId;
+    }
+
+    public boolean isRead() {
+        return isRead;
+    }
+
+    public void setRead(boolean read) {
+        isRead = read;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+
+    public void setReadAt(LocalDateTime readAt) {
+        this.readAt = readAt;
+    }
+}
@@ -0,0 +1,41 @@
+package com.taskmanager.notification.dto;
+
+public class PushMessage {
+    private Long userId;
+    private String event;
+    private String payload;
+
+    // Constructors
+    public PushMessage() {}
+
+    public PushMessage(Long userId, String event, String payload) {
+        this.userId = userId;
+        this.event = event;
+        this.payload = payload;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getEvent() {
+        return event;
+    }
+
+    public void setEvent(String event) {
+        this.event = event;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,30 @@
+package com.taskmanager.notification.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// Subset of user-service's UserResponse that notification delivery needs
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserInfo {
+    private Long id;
+    private String email;
+
+    // Constructors
+    public UserInfo() {}
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
@@ -4,7 +4,14 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        // InnoDB appends the primary key to secondary indexes, so these also cover the (created_at, id) keyset order
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_notifications_user_read_created", columnList = "user_id, is_read, created_at"),
+        @Index(name = "idx_notifications_user_type_created", columnList = "user_id, type, created_at"),
+        // Equality on all three leaves the unsent rows in primary key order for the dispatcher's claim query
+        @Index(name = "idx_notifications_unsent", columnList = "is_sent, email_sent, email_suppressed")
+})
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,6 +42,10 @@ public class Notification {
     @Column(name = "email_sent")
     private boolean emailSent = false;
 
+    // Set when the recipient turned email off for this type; such rows are never dispatched
+    @Column(name = "email_suppressed", nullable = false)
+    private boolean emailSuppressed = false;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -44,6 +55,12 @@ public class Notification {
     @Column(name = "read_at")
     private LocalDateTime readAt;
 
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    @Column(name = "dispatch_attempts", nullable = false)
+    private int dispatchAttempts = 0;
+
     public enum NotificationType {
         TASK_CREATED, TASK_UPDATED, TASK_ASSIGNED, TASK_COMPLETED, TASK_DELETED, TASK_DUE_SOON, TASK_OVERDUE, SYSTEM
     }
@@ -142,6 +159,14 @@ public class Notification {
         this.emailSent = emailSent;
     }
 
+    public boolean isEmailSuppressed() {
+        return emailSuppressed;
+    }
+
+    public void setEmailSuppressed(boolean emailSuppressed) {
+        this.emailSuppressed = emailSuppressed;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -165,4 +190,20 @@ public class Notification {
     public void setReadAt(LocalDateTime readAt) {
         this.readAt = readAt;
     }
-}
\ No newline at end of file
+
+    public LocalDateTime getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(LocalDateTime claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    public int getDispatchAttempts() {
+        return dispatchAttempts;
+    }
+
+    public void setDispatchAttempts(int dispatchAttempts) {
+        this.dispatchAttempts = dispatchAttempts;
+    }
+}
@@ -0,0 +1,94 @@
+package com.taskmanager.notification.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_preferences")
+public class NotificationPreference {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    // One bit per (channel, notification type); a set bit means that delivery is turned off
+    @Column(name = "disabled_mask", nullable = false)
+    private long disabledMask = 0L;
+
+    @Column(name = "quiet_start_minute")
+    private Integer quietStartMinute;
+
+    @Column(name = "quiet_end_minute")
+    private Integer quietEndMinute;
+
+    @Column(name = "time_zone")
+    private String timeZone;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public enum Channel {
+        IN_APP, EMAIL
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public NotificationPreference() {}
+
+    public NotificationPreference(Long userId) {
+        this.userId = userId;
+    }
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public long getDisabledMask() {
+        return disabledMask;
+    }
+
+    public void setDisabledMask(long disabledMask) {
+        this.disabledMask = disabledMask;
+    }
+
+    public Integer getQuietStartMinute() {
+        return quietStartMinute;
+    }
+
+    public void setQuietStartMinute(Integer quietStartMinute) {
+        this.quietStartMinute = quietStartMinute;
+    }
+
+    public Integer getQuietEndMinute() {
+        return quietEndMinute;
+    }
+
+    public void setQuietEndMinute(Integer quietEndMinute) {
+        this.quietEndMinute = quietEndMinute;
+    }
+
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
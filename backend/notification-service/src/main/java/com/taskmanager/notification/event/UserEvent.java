@@ -0,0 +1,37 @@
+package com.taskmanager.notification.event;
+
+import java.time.LocalDateTime;
+
+public class UserEvent {
+    private String eventType;
+    private Long userId;
+    private LocalDateTime eventTimestamp;
+
+    // Constructors
+    public UserEvent() {}
+
+    // Getters and Setters
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getEventTimestamp() {
+        return eventTimestamp;
+    }
+
+    public void setEventTimestamp(LocalDateTime eventTimestamp) {
+        this.eventTimestamp = eventTimestamp;
+    }
+}
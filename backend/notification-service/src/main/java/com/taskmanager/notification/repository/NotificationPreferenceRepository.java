@@ -0,0 +1,9 @@
+package com.taskmanager.notification.repository;
+
+import com.taskmanager.notification.entity.NotificationPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationPreferenceRepository extends JpaRepository<NotificationPreference, Long> {
+}
@@ -1,11 +1,16 @@
 package com.taskmanager.notification.repository;
 
+import com.taskmanager.notification.dto.NotificationSummary;
 import com.taskmanager.notification.entity.Notification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -21,7 +26,55 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     long countByUserIdAndIsRead(Long userId, boolean isRead);
 
-    List<Notification> findByIsSentFalseAndEmailSentFalse();
+    @Query("SELECT new com.taskmanager.notification.dto.NotificationSummary(" +
+           "n.id, n.userId, n.title, n.type, n.taskId, n.isRead, n.createdAt, n.readAt) " +
+           "FROM Notification n WHERE n.userId = :userId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationSummary> findFeedFirstPage(Long userId, Pageable pageable);
 
-    void deleteByUserIdAndIsReadTrue(Long userId);
+    @Query("SELECT new com.taskmanager.notification.dto.NotificationSummary(" +
+           "n.id, n.userId, n.title, n.type, n.taskId, n.isRead, n.createdAt, n.readAt) " +
+           "FROM Notification n WHERE n.userId = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<NotificationSummary> findFeedPageAfter(Long userId, LocalDateTime createdAt, Long id, Pageable pageable);
+
+    // SKIP LOCKED lets several instances claim disjoint batches without waiting on each other. Rows that used
+    // up their attempts stay parked, and rows whose recipient turned email off are never claimed.
+    @Query(value = "SELECT id FROM notifications WHERE is_sent = false AND email_sent = false " +
+                   "AND email_suppressed = false AND dispatch_attempts < :maxAttempts " +
+                   "AND (claimed_until IS NULL OR claimed_until < :now) " +
+                   "ORDER BY id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> findClaimableUnsentIds(LocalDateTime now, int maxAttempts, int batchSize);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.claimedUntil = :claimedUntil, n.dispatchAttempts = n.dispatchAttempts + 1 " +
+           "WHERE n.id IN :ids")
+    int claimForDispatch(List<Long> ids, LocalDateTime claimedUntil);
+
+    // Gives back the attempt of a claim that never got as far as sending
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.dispatchAttempts = n.dispatchAttempts - 1 " +
+           "WHERE n.id IN :ids AND n.dispatchAttempts > 0")
+    int refundDispatchAttempt(List<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.isSent = true, n.emailSent = true, n.sentAt = :sentAt, " +
+           "n.claimedUntil = null WHERE n.id IN :ids")
+    int markDispatched(List<Long> ids, LocalDateTime sentAt);
+
+    // Bulk operations are capped at :batchSize rows so each statement holds row locks only briefly
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE notifications SET is_read = true, read_at = :readAt " +
+                   "WHERE user_id = :userId AND is_read = false LIMIT :batchSize", nativeQuery = true)
+    int markUnreadAsReadByUserId(Long userId, LocalDateTime readAt, int batchSize);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM notifications WHERE user_id = :userId AND is_read = true LIMIT :batchSize",
+           nativeQuery = true)
+    int deleteReadByUserId(Long userId, int batchSize);
 }
\ No newline at end of file
@@ -1,12 +1,27 @@
 package com.taskmanager.notification.service;
 
 import com.taskmanager.notification.entity.Notification;
+import jakarta.mail.Message;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+
 @Service
 public class EmailService {
 
+    @Autowired
+    private SmtpTransportPool smtpTransportPool;
+
+    @Autowired
+    private UserEmailCache userEmailCache;
+
+    @Value("${app.user-directory.enabled:true}")
+    private boolean userDirectoryEnabled;
+
     @Value("${app.email.enabled:false}")
     private boolean emailEnabled;
 
@@ -14,13 +29,6 @@ public class EmailService {
     private String fromEmail;
 
     public void sendNotificationEmail(Notification notification) {
-        // Mock email service implementation
-        // In a real application, you would integrate with email providers like:
-        // - SendGrid
-        // - AWS SES
-        // - SMTP server
-        // - etc.
-
         if (!emailEnabled) {
             System.out.println("Email service disabled. Simulating email send...");
             simulateEmailSend(notification);
@@ -28,24 +36,15 @@ public class EmailService {
         }
 
         try {
-            // Mock email sending logic
-            String recipient = getUserEmail(notification.getUserId());
-            String subject = notification.getTitle();
-            String body = buildEmailBody(notification);
+            MimeMessage email = smtpTransportPool.createMessage();
+            email.setFrom(new InternetAddress(fromEmail));
+            email.setRecipient(Message.RecipientType.TO, new InternetAddress(getUserEmail(notification.getUserId())));
+            email.setSubject(notification.getTitle(), StandardCharsets.UTF_8.name());
+            email.setText(buildEmailBody(notification), StandardCharsets.UTF_8.name());
 
-            System.out.println("=== SENDING EMAIL ===");
-            System.out.println("From: " + fromEmail);
-            System.out.println("To: " + recipient);
-            System.out.println("Subject: " + subject);
-            System.out.println("Body: " + body);
-            System.out.println("====================");
-
-            // Simulate email sending delay
-            Thread.sleep(100);
+            smtpTransportPool.send(email);
 
             notification.setEmailSent(true);
-            System.out.println("Email sent successfully for notification ID: " + notification.getId());
-
         } catch (Exception e) {
             System.err.println("Failed to send email for notification ID " + notification.getId() + ": " + e.getMessage());
             throw new RuntimeException("Email sending failed", e);
@@ -69,10 +68,15 @@ public class EmailService {
     }
 
     private String getUserEmail(Long userId) {
-        // Mock user email retrieval
-        // In a real application, you would fetch user details from User Service
-        // via REST client, Feign client, or database lookup
-        return "user" + userId + "@taskmanager.com";
+        if (!userDirectoryEnabled) {
+            return "user" + userId + "@taskmanager.com";
+        }
+
+        String email = userEmailCache.getEmail(userId);
+        if (email == null) {
+            throw new RuntimeException("No email address found for user " + userId);
+        }
+        return email;
     }
 
     private String buildEmailBody(Notification notification) {
@@ -114,4 +118,4 @@ public class EmailService {
         System.out.println("Body: Click the link to reset your password: /reset-password?token=" + resetToken);
         System.out.println("============================");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,182 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.notification.entity.Notification;
+import com.taskmanager.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Service
+public class NotificationDispatchService {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private UserEmailCache userEmailCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.notifications.dispatch.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.notifications.dispatch.claim-timeout-seconds:300}")
+    private long claimTimeoutSeconds;
+
+    @Value("${app.notifications.dispatch.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.user-directory.enabled:true}")
+    private boolean userDirectoryEnabled;
+
+    private final ExecutorService sendExecutor;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    private final Counter claimedCounter;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter parkedCounter;
+    private final Timer batchTimer;
+    private final Timer emailTimer;
+
+    public NotificationDispatchService(MeterRegistry meterRegistry,
+                                       @Value("${app.notifications.dispatch.parallelism:8}") int parallelism) {
+        this.sendExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.claimedCounter = meterRegistry.counter("notifications.dispatch.claimed");
+        this.sentCounter = meterRegistry.counter("notifications.dispatch.sent");
+        this.failedCounter = meterRegistry.counter("notifications.dispatch.failed");
+        this.parkedCounter = meterRegistry.counter("notifications.dispatch.parked");
+        this.batchTimer = meterRegistry.timer("notifications.dispatch.batch");
+        this.emailTimer = meterRegistry.timer("notifications.dispatch.email");
+        meterRegistry.gauge("notifications.dispatch.running", running, flag -> flag.get() ? 1 : 0);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.dispatch.interval-ms:5000}")
+    public void dispatchPending() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            List<Long> claimed;
+            do {
+                claimed = claimBatch();
+                if (!claimed.isEmpty()) {
+                    List<Long> batch = claimed;
+                    batchTimer.record(() -> dispatchBatch(batch));
+                }
+            } while (claimed.size() == batchSize);
+        } catch (Exception e) {
+            System.err.println("Notification dispatch run failed: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public void triggerDispatch() {
+        CompletableFuture.runAsync(this::dispatchPending);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+
+    private List<Long> claimBatch() {
+        List<Long> ids = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> claimable = notificationRepository.findClaimableUnsentIds(now, maxAttempts, batchSize);
+            if (!claimable.isEmpty()) {
+                notificationRepository.claimForDispatch(claimable, now.plusSeconds(claimTimeoutSeconds));
+            }
+            return claimable;
+        });
+
+        List<Long> claimed = ids != null ? ids : Collections.emptyList();
+        claimedCounter.increment(claimed.size());
+        return claimed;
+    }
+
+    private void dispatchBatch(List<Long> ids) {
+        List<Notification> notifications = notificationRepository.findAllById(ids);
+
+        // Warm the email cache with one user-service call for the whole batch instead of one per notification
+        if (userDirectoryEnabled) {
+            try {
+                userEmailCache.getEmails(notifications.stream().map(Notification::getUserId).collect(Collectors.toSet()));
+            } catch (Exception e) {
+                // Claims expire and the batch is retried, rather than falling back to per-notification lookups;
+                // nothing was sent, so a user-service outage does not use up the rows' attempts
+                System.err.println("Failed to resolve recipient emails: " + e.getMessage());
+                notificationRepository.refundDispatchAttempt(ids);
+                failedCounter.increment(notifications.size());
+                return;
+            }
+        }
+
+        List<CompletableFuture<Long>> sends = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            sends.add(CompletableFuture.supplyAsync(() -> send(notification), sendExecutor));
+        }
+
+        List<Long> delivered = new ArrayList<>(sends.size());
+        for (int i = 0; i < sends.size(); i++) {
+            Long id = sends.get(i).join();
+            if (id != null) {
+                delivered.add(id);
+                continue;
+            }
+
+            // The claim already counted this attempt; at the cap the row is no longer claimed
+            Notification failed = notifications.get(i);
+            if (failed.getDispatchAttempts() >= maxAttempts) {
+                System.err.println("Parking notification " + failed.getId() + " after " + failed.getDispatchAttempts() +
+                                   " failed email attempts");
+                parkedCounter.increment();
+            }
+        }
+
+        // Failed rows keep their claim, so they are retried once it expires rather than in a tight loop
+        if (!delivered.isEmpty()) {
+            notificationRepository.markDispatched(delivered, LocalDateTime.now());
+        }
+
+        sentCounter.increment(delivered.size());
+        failedCounter.increment(notifications.size() - delivered.size());
+    }
+
+    private Long send(Notification notification) {
+        try {
+            emailTimer.record(() -> emailService.sendNotificationEmail(notification));
+            return notification.getId();
+        } catch (Exception e) {
+            System.err.println("Failed to send notification email for ID " + notification.getId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
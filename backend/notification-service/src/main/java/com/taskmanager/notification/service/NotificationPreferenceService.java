@@ -0,0 +1,237 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.notification.dto.NotificationPreferenceDto;
+import com.taskmanager.notification.entity.Notification;
+import com.taskmanager.notification.entity.NotificationPreference;
+import com.taskmanager.notification.repository.NotificationPreferenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class NotificationPreferenceService {
+
+    private static final int BITS_PER_CHANNEL = 16;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private NotificationPreferenceRepository preferenceRepository;
+
+    @Value("${app.notifications.preferences.cache-ttl-ms:300000}")
+    private long cacheTtlMs;
+
+    @Value("${app.notifications.preferences.cache-max-size:100000}")
+    private int cacheMaxSize;
+
+    // One entry per recently notified user, capped at cache-max-size
+    private final Map<Long, CachedPreferences> cache = new ConcurrentHashMap<>();
+
+    public Delivery resolve(Long userId, Notification.NotificationType type) {
+        CachedPreferences preferences = get(userId);
+
+        boolean inApp = preferences.isEnabled(NotificationPreference.Channel.IN_APP, type);
+        boolean email = preferences.isEnabled(NotificationPreference.Channel.EMAIL, type);
+        LocalDateTime emailNotBefore = email ? preferences.quietHoursEnd() : null;
+
+        return new Delivery(inApp, email, emailNotBefore);
+    }
+
+    public NotificationPreferenceDto getPreferences(Long userId) {
+        NotificationPreference preference = preferenceRepository.findById(userId)
+                .orElseGet(() -> new NotificationPreference(userId));
+
+        NotificationPreferenceDto dto = new NotificationPreferenceDto();
+        dto.setInAppDisabled(disabledTypes(preference.getDisabledMask(), NotificationPreference.Channel.IN_APP));
+        dto.setEmailDisabled(disabledTypes(preference.getDisabledMask(), NotificationPreference.Channel.EMAIL));
+        dto.setQuietHoursStart(formatMinute(preference.getQuietStartMinute()));
+        dto.setQuietHoursEnd(formatMinute(preference.getQuietEndMinute()));
+        dto.setTimeZone(preference.getTimeZone());
+        return dto;
+    }
+
+    public NotificationPreferenceDto updatePreferences(Long userId, NotificationPreferenceDto request) {
+        NotificationPreference preference = preferenceRepository.findById(userId)
+                .orElseGet(() -> new NotificationPreference(userId));
+
+        long mask = 0L;
+        if (request.getInAppDisabled() != null) {
+            for (Notification.NotificationType type : request.getInAppDisabled()) {
+                mask |= bit(NotificationPreference.Channel.IN_APP, type);
+            }
+        }
+        if (request.getEmailDisabled() != null) {
+            for (Notification.NotificationType type : request.getEmailDisabled()) {
+                mask |= bit(NotificationPreference.Channel.EMAIL, type);
+            }
+        }
+        preference.setDisabledMask(mask);
+
+        boolean hasQuietHours = request.getQuietHoursStart() != null && request.getQuietHoursEnd() != null;
+        try {
+            preference.setQuietStartMinute(hasQuietHours ? parseMinute(request.getQuietHoursStart()) : null);
+            preference.setQuietEndMinute(hasQuietHours ? parseMinute(request.getQuietHoursEnd()) : null);
+            preference.setTimeZone(request.getTimeZone() != null ? ZoneId.of(request.getTimeZone()).getId() : null);
+        } catch (DateTimeException e) {
+            throw new RuntimeException("Invalid quiet hours or time zone: " + e.getMessage());
+        }
+
+        preferenceRepository.save(preference);
+        cache.remove(userId);
+        return getPreferences(userId);
+    }
+
+    private CachedPreferences get(Long userId) {
+        long now = System.currentTimeMillis();
+        CachedPreferences cached = cache.get(userId);
+        // Other instances do not see local updates, so entries expire to bound how stale they can get
+        if (cached != null && now - cached.loadedAt < cacheTtlMs) {
+            return cached;
+        }
+
+        CachedPreferences loaded = preferenceRepository.findById(userId)
+                .map(preference -> CachedPreferences.from(preference, now))
+                .orElseGet(() -> CachedPreferences.defaults(now));
+        cache.put(userId, loaded);
+        evictIfFull(now);
+        return loaded;
+    }
+
+    private void evictIfFull(long now) {
+        if (cache.size() <= cacheMaxSize) {
+            return;
+        }
+
+        // Drop expired entries first, then the oldest tenth, so the scan cost is amortized over many inserts
+        cache.values().removeIf(cached -> now - cached.loadedAt >= cacheTtlMs);
+        int toEvict = cache.size() - cacheMaxSize + cacheMaxSize / 10;
+        if (toEvict <= 0) {
+            return;
+        }
+        cache.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().loadedAt))
+                .limit(toEvict)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(cache::remove);
+    }
+
+    private static long bit(NotificationPreference.Channel channel, Notification.NotificationType type) {
+        return 1L << (channel.ordinal() * BITS_PER_CHANNEL + type.ordinal());
+    }
+
+    private List<Notification.NotificationType> disabledTypes(long mask, NotificationPreference.Channel channel) {
+        List<Notification.NotificationType> types = new ArrayList<>();
+        for (Notification.NotificationType type : Notification.NotificationType.values()) {
+            if ((mask & bit(channel, type)) != 0) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    private int parseMinute(String time) {
+        LocalTime localTime = LocalTime.parse(time);
+        return localTime.getHour() * 60 + localTime.getMinute();
+    }
+
+    private String formatMinute(Integer minute) {
+        return minute != null ? LocalTime.of(minute / 60, minute % 60).toString() : null;
+    }
+
+    public static class Delivery {
+        private final boolean inApp;
+        private final boolean email;
+        private final LocalDateTime emailNotBefore;
+
+        private Delivery(boolean inApp, boolean email, LocalDateTime emailNotBefore) {
+            this.inApp = inApp;
+            this.email = email;
+            this.emailNotBefore = emailNotBefore;
+        }
+
+        public boolean isSuppressed() {
+            return !inApp && !email;
+        }
+
+        public boolean isInApp() {
+            return inApp;
+        }
+
+        public boolean isEmail() {
+            return email;
+        }
+
+        // Set when the event arrives during quiet hours; the email is held until this (server-local) time
+        public LocalDateTime getEmailNotBefore() {
+            return emailNotBefore;
+        }
+    }
+
+    private static class CachedPreferences {
+        private static final short NO_QUIET_HOURS = -1;
+
+        private final long disabledMask;
+        private final short quietStart;
+        private final short quietEnd;
+        private final ZoneId zone;
+        private final long loadedAt;
+
+        private CachedPreferences(long disabledMask, short quietStart, short quietEnd, ZoneId zone, long loadedAt) {
+            this.disabledMask = disabledMask;
+            this.quietStart = quietStart;
+            this.quietEnd = quietEnd;
+            this.zone = zone;
+            this.loadedAt = loadedAt;
+        }
+
+        static CachedPreferences defaults(long loadedAt) {
+            return new CachedPreferences(0L, NO_QUIET_HOURS, NO_QUIET_HOURS, ZoneId.systemDefault(), loadedAt);
+        }
+
+        static CachedPreferences from(NotificationPreference preference, long loadedAt) {
+            boolean hasQuietHours = preference.getQuietStartMinute() != null && preference.getQuietEndMinute() != null;
+            ZoneId zone = preference.getTimeZone() != null ? ZoneId.of(preference.getTimeZone()) : ZoneId.systemDefault();
+            return new CachedPreferences(
+                    preference.getDisabledMask(),
+                    hasQuietHours ? preference.getQuietStartMinute().shortValue() : NO_QUIET_HOURS,
+                    hasQuietHours ? preference.getQuietEndMinute().shortValue() : NO_QUIET_HOURS,
+                    zone,
+                    loadedAt);
+        }
+
+        boolean isEnabled(NotificationPreference.Channel channel, Notification.NotificationType type) {
+            return (disabledMask & bit(channel, type)) == 0;
+        }
+
+        LocalDateTime quietHoursEnd() {
+            if (quietStart == NO_QUIET_HOURS || quietStart == quietEnd) {
+                return null;
+            }
+
+            ZonedDateTime now = ZonedDateTime.now(zone);
+            int minute = now.getHour() * 60 + now.getMinute();
+            boolean quiet = quietStart < quietEnd
+                    ? minute >= quietStart && minute < quietEnd
+                    : minute >= quietStart || minute < quietEnd;
+            if (!quiet) {
+                return null;
+            }
+
+            int minutesUntilEnd = Math.floorMod(quietEnd - minute, MINUTES_PER_DAY);
+            return now.plusMinutes(minutesUntilEnd).withSecond(0).withNano(0)
+                    .withZoneSameInstant(ZoneId.systemDefault())
+                    .toLocalDateTime();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.taskmanager.notification.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taskmanager.notification.dto.NotificationResponse;
+import com.taskmanager.notification.dto.PushMessage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class NotificationPushService implements MessageListener {
+
+    public static final String PUSH_CHANNEL = "notification_push";
+
+    private static final String NOTIFICATION_EVENT = "notification";
+    private static final String UNREAD_COUNT_EVENT = "unread-count";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.notifications.push.emitter-timeout-ms:1800000}")
+    private long emitterTimeout;
+
+    @Value("${app.notifications.push.max-connections:50000}")
+    private int maxConnections;
+
+    @Value("${app.notifications.push.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.notifications.push.max-pending-per-connection:32}")
+    private int maxPendingPerConnection;
+
+    private final Map<Long, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    // Writes happen off the Kafka consumer thread so a slow client never stalls event processing. Each
+    // connection drains its own outbox in order and has at most one drain task queued, so the queue is
+    // bounded by the number of connections.
+    private final ThreadPoolExecutor sendExecutor;
+
+    public NotificationPushService(@Value("${app.notifications.push.send-threads:4}") int sendThreads) {
+        this.sendExecutor = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-push");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout);
+
+        // The slot is taken before the check so concurrent subscribers cannot overshoot the limit
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            emitter.completeWithError(new IllegalStateException("Too many push connections"));
+            return emitter;
+        }
+
+        Set<Connection> existing = connections.get(userId);
+        if (existing != null && existing.size() >= maxConnectionsPerUser) {
+            // Evict the oldest connection; it usually belongs to a tab that was closed without a clean disconnect
+            existing.stream().findFirst().ifPresent(oldest -> close(userId, oldest));
+        }
+
+        Connection connection = new Connection(emitter);
+        connections.compute(userId, (id, userConnections) -> {
+            Set<Connection> updated = userConnections != null ? userConnections : new CopyOnWriteArraySet<>();
+            updated.add(connection);
+            return updated;
+        });
+
+        emitter.onCompletion(() -> remove(userId, connection));
+        emitter.onTimeout(() -> remove(userId, connection));
+        emitter.onError(e -> remove(userId, connection));
+
+        return emitter;
+    }
+
+    public void publishNotification(NotificationResponse notification) {
+        publish(notification.getUserId(), NOTIFICATION_EVENT, notification);
+    }
+
+    public void publishUnreadCount(Long userId, long unreadCount) {
+        publish(userId, UNREAD_COUNT_EVENT, Map.of("unreadCount", unreadCount));
+    }
+
+    // Messages go through Redis so a client connected to any instance receives events consumed by another
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            PushMessage pushMessage = objectMapper.readValue(
+                    new String(message.getBody(), StandardCharsets.UTF_8), PushMessage.class);
+            deliver(pushMessage);
+        } catch (Exception e) {
+            System.err.println("Failed to handle push message: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.notifications.push.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        connections.forEach((userId, userConnections) -> {
+            for (Connection connection : userConnections) {
+                // A connection with writes in flight is not idle and needs no heartbeat
+                if (connection.pending.get() == 0) {
+                    enqueue(userId, connection, SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        });
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+        connections.values().forEach(userConnections ->
+                userConnections.forEach(connection -> connection.emitter.complete()));
+    }
+
+    private void publish(Long userId, String event, Object data) {
+        PushMessage pushMessage;
+        try {
+            pushMessage = new PushMessage(userId, event, objectMapper.writeValueAsString(data));
+        } catch (Exception e) {
+            System.err.println("Failed to serialize push event for user " + userId + ": " + e.getMessage());
+            return;
+        }
+
+        try {
+            redisTemplate.convertAndSend(PUSH_CHANNEL, objectMapper.writeValueAsString(pushMessage));
+        } catch (Exception e) {
+            // Without Redis, at least clients connected to this instance still get the event
+            System.err.println("Failed to relay push event through Redis: " + e.getMessage());
+            deliver(pushMessage);
+        }
+    }
+
+    private void deliver(PushMessage pushMessage) {
+        Set<Connection> userConnections = connections.get(pushMessage.getUserId());
+        if (userConnections == null || userConnections.isEmpty()) {
+            return;
+        }
+
+        for (Connection connection : userConnections) {
+            enqueue(pushMessage.getUserId(), connection, SseEmitter.event()
+                    .name(pushMessage.getEvent())
+                    .data(pushMessage.getPayload(), MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void enqueue(Long userId, Connection connection, SseEmitter.SseEventBuilder event) {
+        // The event is queued before it is counted, so a drain that sees a pending count always finds an event
+        connection.outbox.add(event);
+        int pending = connection.pending.incrementAndGet();
+
+        // A client that cannot keep up is disconnected; it resyncs through the REST endpoints on reconnect
+        if (pending > maxPendingPerConnection) {
+            close(userId, connection);
+            return;
+        }
+
+        if (pending == 1) {
+            try {
+                sendExecutor.execute(() -> drain(userId, connection));
+            } catch (RejectedExecutionException e) {
+                // Only happens on shutdown
+                close(userId, connection);
+            }
+        }
+    }
+
+    // Sends the connection's events in order on one thread at a time
+    private void drain(Long userId, Connection connection) {
+        do {
+            SseEmitter.SseEventBuilder event = connection.outbox.poll();
+            if (event != null && !connection.closed) {
+                try {
+                    connection.emitter.send(event);
+                } catch (Exception e) {
+                    close(userId, connection);
+                }
+            }
+        } while (connection.pending.decrementAndGet() > 0);
+    }
+
+    private void close(Long userId, Connection connection) {
+        connection.closed = true;
+        remove(userId, connection);
+        try {
+            connection.emitter.complete();
+        } catch (Exception e) {
+            // Already completed
+        }
+    }
+
+    private void remove(Long userId, Connection connection) {
+        connections.computeIfPresent(userId, (id, userConnections) -> {
+            if (userConnections.remove(connection)) {
+                connectionCount.decrementAndGet();
+            }
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    private static class Connection {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean closed;
+
+        private Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
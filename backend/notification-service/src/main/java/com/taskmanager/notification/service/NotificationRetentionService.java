@@ -0,0 +1,215 @@
+package com.taskmanager.notification.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class NotificationRetentionService {
+
+    private static final String LOCK_NAME = "notification_retention";
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final DateTimeFormatter PARTITION_FORMAT = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UnreadCountService unreadCountService;
+
+    @Value("${app.notifications.retention.enabled:true}")
+    private boolean retentionEnabled;
+
+    @Value("${app.notifications.retention.partitioning-enabled:true}")
+    private boolean partitioningEnabled;
+
+    @Value("${app.notifications.retention.retention-months:6}")
+    private int retentionMonths;
+
+    @Value("${app.notifications.retention.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.notifications.retention.archive-dir:data/notification-archive}")
+    private String archiveDir;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializePartitions() {
+        if (partitioningEnabled) {
+            runExclusively(this::maintainPartitions);
+        }
+    }
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public void runRetention() {
+        if (partitioningEnabled) {
+            runExclusively(this::maintainPartitions);
+        }
+    }
+
+    // All statements share one connection so the MySQL named lock keeps a single instance doing DDL at a time
+    private void runExclusively(PartitionTask task) {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                JdbcTemplate jdbc = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+
+                Integer locked = jdbc.queryForObject("SELECT GET_LOCK(?, 0)", Integer.class, LOCK_NAME);
+                if (locked == null || locked != 1) {
+                    return null;
+                }
+
+                try {
+                    task.run(jdbc);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    jdbc.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            System.err.println("Notification partition maintenance failed: " + e.getMessage());
+        }
+    }
+
+    private void maintainPartitions(JdbcTemplate jdbc) throws IOException {
+        List<String> partitions = jdbc.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notifications' " +
+                "AND PARTITION_NAME IS NOT NULL ORDER BY PARTITION_ORDINAL_POSITION", String.class);
+
+        // Converting the table rebuilds it under a metadata lock, so it is a migration, not something an
+        // instance does on its own at startup
+        if (partitions.isEmpty()) {
+            System.err.println("notifications table is not partitioned; run " +
+                               "infrastructure/mysql/migrations/notifications-partition-by-month.sql to enable retention");
+            return;
+        }
+
+        addFuturePartitions(jdbc, partitions);
+
+        if (retentionEnabled) {
+            archiveExpiredPartitions(jdbc);
+        }
+    }
+
+    private void addFuturePartitions(JdbcTemplate jdbc, List<String> partitions) {
+        YearMonth to = YearMonth.now().plusMonths(monthsAhead);
+
+        for (YearMonth month = YearMonth.now(); !month.isAfter(to); month = month.plusMonths(1)) {
+            if (partitions.contains(partitionName(month))) {
+                continue;
+            }
+            // Splitting the empty MAXVALUE partition is a metadata-only change
+            jdbc.execute("ALTER TABLE notifications REORGANIZE PARTITION " + FUTURE_PARTITION + " INTO (" +
+                         partitionDefinition(month) + ", " +
+                         "PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+        }
+    }
+
+    private void archiveExpiredPartitions(JdbcTemplate jdbc) throws IOException {
+        LocalDate cutoff = YearMonth.now().minusMonths(retentionMonths).atDay(1);
+
+        List<String> expired = jdbc.queryForList(
+                "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notifications' " +
+                "AND PARTITION_NAME <> ? AND PARTITION_NAME < ? ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, FUTURE_PARTITION, partitionName(YearMonth.from(cutoff)));
+
+        for (String partition : expired) {
+            Path archive = archivePartition(jdbc, partition);
+            // Unread rows in the partition are counted in their users' unread counters
+            List<Long> affectedUsers = jdbc.queryForList(
+                    "SELECT DISTINCT user_id FROM notifications PARTITION (" + partition + ") WHERE is_read = false",
+                    Long.class);
+
+            jdbc.execute("ALTER TABLE notifications DROP PARTITION " + partition);
+            System.out.println("Archived notifications partition " + partition + " to " + archive);
+
+            affectedUsers.forEach(unreadCountService::reconcile);
+        }
+    }
+
+    private Path archivePartition(JdbcTemplate jdbc, String partition) throws IOException {
+        Path directory = Paths.get(archiveDir);
+        Files.createDirectories(directory);
+
+        Path target = directory.resolve("notifications-" + partition.substring(2) + ".jsonl.gz");
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp));
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // MySQL Connector/J only streams rows when the fetch size is Integer.MIN_VALUE
+            jdbc.setFetchSize(Integer.MIN_VALUE);
+            jdbc.query("SELECT id, user_id, title, message, type, task_id, is_read, is_sent, email_sent, email_suppressed, " +
+                       "created_at, sent_at, read_at FROM notifications PARTITION (" + partition + ")", rs -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", rs.getLong("id"));
+                    generator.writeNumberField("userId", rs.getLong("user_id"));
+                    generator.writeStringField("title", rs.getString("title"));
+                    generator.writeStringField("message", rs.getString("message"));
+                    generator.writeStringField("type", rs.getString("type"));
+                    generator.writeStringField("taskId", rs.getString("task_id"));
+                    generator.writeBooleanField("isRead", rs.getBoolean("is_read"));
+                    generator.writeBooleanField("isSent", rs.getBoolean("is_sent"));
+                    generator.writeBooleanField("emailSent", rs.getBoolean("email_sent"));
+                    generator.writeBooleanField("emailSuppressed", rs.getBoolean("email_suppressed"));
+                    generator.writeStringField("createdAt", toIsoString(rs.getTimestamp("created_at")));
+                    generator.writeStringField("sentAt", toIsoString(rs.getTimestamp("sent_at")));
+                    generator.writeStringField("readAt", toIsoString(rs.getTimestamp("read_at")));
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to write archive for partition " + partition, e);
+                }
+            });
+        } finally {
+            jdbc.setFetchSize(-1);
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    private String partitionDefinition(YearMonth month) {
+        return "PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + "')";
+    }
+
+    private String partitionName(YearMonth month) {
+        return "p" + month.format(PARTITION_FORMAT);
+    }
+
+    private String toIsoString(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask {
+        void run(JdbcTemplate jdbc) throws IOException;
+    }
+}
@@ -1,15 +1,22 @@
 package com.taskmanager.notification.service;
 
+import com.taskmanager.notification.dto.NotificationFeedResponse;
 import com.taskmanager.notification.dto.NotificationResponse;
+import com.taskmanager.notification.dto.NotificationSummary;
 import com.taskmanager.notification.entity.Notification;
 import com.taskmanager.notification.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,22 +27,57 @@ public class NotificationService {
     private NotificationRepository notificationRepository;
 
     @Autowired
-    private EmailService emailService;
+    private NotificationDispatchService dispatchService;
+
+    @Autowired
+    private UnreadCountService unreadCountService;
+
+    @Autowired
+    private NotificationPushService pushService;
+
+    @Value("${app.notifications.bulk-batch-size:5000}")
+    private int bulkBatchSize;
+
+    @Value("${app.notifications.feed.max-page-size:100}")
+    private int maxFeedPageSize;
+
+    private final Timer dbWriteTimer;
+
+    public NotificationService(MeterRegistry meterRegistry) {
+        this.dbWriteTimer = meterRegistry.timer("notifications.db.write");
+    }
 
     public Notification createNotification(Long userId, String title, String message,
-                                         Notification.NotificationType type, String taskId) {
+                                         Notification.NotificationType type, String taskId,
+                                         NotificationPreferenceService.Delivery delivery) {
+        if (delivery.isSuppressed()) {
+            return null;
+        }
+
         Notification notification = new Notification(userId, title, message, type);
         notification.setTaskId(taskId);
 
-        Notification savedNotification = notificationRepository.save(notification);
+        // Email-only rows are stored as read so they stay out of the unread count and feed badges
+        if (!delivery.isInApp()) {
+            notification.setRead(true);
+        }
+        if (!delivery.isEmail()) {
+            notification.setEmailSuppressed(true);
+        }
+        // During quiet hours the row is pre-claimed until they end, which holds it back from dispatch
+        if (delivery.getEmailNotBefore() != null) {
+            notification.setClaimedUntil(delivery.getEmailNotBefore());
+        }
+
+        Notification savedNotification = dbWriteTimer.record(() -> notificationRepository.save(notification));
 
-        // Send email notification asynchronously (mock implementation)
-        try {
-            emailService.sendNotificationEmail(savedNotification);
-        } catch (Exception e) {
-            System.err.println("Failed to send email notification: " + e.getMessage());
+        if (delivery.isInApp()) {
+            unreadCountService.increment(userId);
+            pushService.publishNotification(new NotificationResponse(savedNotification));
+            publishUnreadCount(userId);
         }
 
+        // Email is sent by NotificationDispatchService, which picks up unsent rows in batches
         return savedNotification;
     }
 
@@ -52,6 +94,46 @@ public class NotificationService {
         return notificationsPage.map(NotificationResponse::new);
     }
 
+    public NotificationFeedResponse getUserNotificationFeed(Long userId, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxFeedPageSize));
+        Pageable limit = PageRequest.of(0, pageSize);
+        List<NotificationSummary> notifications;
+
+        if (cursor == null || cursor.isBlank()) {
+            notifications = notificationRepository.findFeedFirstPage(userId, limit);
+        } else {
+            LocalDateTime createdAt;
+            Long id;
+            try {
+                String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                createdAt = LocalDateTime.parse(position[0]);
+                id = Long.parseLong(position[1]);
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid notification cursor");
+            }
+            notifications = notificationRepository.findFeedPageAfter(userId, createdAt, id, limit);
+        }
+
+        String nextCursor = null;
+        if (notifications.size() == pageSize) {
+            NotificationSummary last = notifications.get(notifications.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return new NotificationFeedResponse(notifications, nextCursor);
+    }
+
+    public NotificationResponse getNotification(Long notificationId, Long userId) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found"));
+
+        if (!notification.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized access to notification");
+        }
+
+        return new NotificationResponse(notification);
+    }
+
     public List<NotificationResponse> getUnreadNotifications(Long userId) {
         List<Notification> notifications = notificationRepository.findByUserIdAndIsReadOrderByCreatedAtDesc(userId, false);
         return notifications.stream()
@@ -74,28 +156,48 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized access to notification");
         }
 
+        boolean wasUnread = !notification.isRead();
         notification.setRead(true);
         Notification updatedNotification = notificationRepository.save(notification);
-        return new NotificationResponse(updatedNotification);
-    }
-
-    public void markAllAsRead(Long userId) {
-        List<Notification> unreadNotifications = notificationRepository.findByUserIdAndIsReadOrderByCreatedAtDesc(userId, false);
 
-        for (Notification notification : unreadNotifications) {
-            notification.setRead(true);
+        if (wasUnread) {
+            unreadCountService.decrement(userId);
+            publishUnreadCount(userId);
         }
+        return new NotificationResponse(updatedNotification);
+    }
 
-        notificationRepository.saveAll(unreadNotifications);
+    public int markAllAsRead(Long userId) {
+        LocalDateTime readAt = LocalDateTime.now();
+        int total = 0;
+        int updated;
+
+        // Each chunk commits on its own so large backlogs never hold one long-running lock. The counter drops by
+        // exactly the rows each chunk changed, so notifications created in between keep their increments.
+        do {
+            updated = notificationRepository.markUnreadAsReadByUserId(userId, readAt, bulkBatchSize);
+            unreadCountService.decrement(userId, updated);
+            total += updated;
+        } while (updated == bulkBatchSize);
+
+        publishUnreadCount(userId);
+        return total;
     }
 
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsRead(userId, false);
+        return unreadCountService.getUnreadCount(userId);
     }
 
-    @Transactional
-    public void deleteReadNotifications(Long userId) {
-        notificationRepository.deleteByUserIdAndIsReadTrue(userId);
+    public int deleteReadNotifications(Long userId) {
+        int total = 0;
+        int deleted;
+
+        do {
+            deleted = notificationRepository.deleteReadByUserId(userId, bulkBatchSize);
+            total += deleted;
+        } while (deleted == bulkBatchSize);
+
+        return total;
     }
 
     public void deleteNotification(Long notificationId, Long userId) {
@@ -107,19 +209,23 @@ public class NotificationService {
         }
 
         notificationRepository.delete(notification);
+
+        if (!notification.isRead()) {
+            unreadCountService.decrement(userId);
+            publishUnreadCount(userId);
+        }
     }
 
     public void processUnsentNotifications() {
-        List<Notification> unsentNotifications = notificationRepository.findByIsSentFalseAndEmailSentFalse();
+        dispatchService.triggerDispatch();
+    }
 
-        for (Notification notification : unsentNotifications) {
-            try {
-                emailService.sendNotificationEmail(notification);
-                notification.setSent(true);
-                notificationRepository.save(notification);
-            } catch (Exception e) {
-                System.err.println("Failed to send notification email for ID " + notification.getId() + ": " + e.getMessage());
-            }
-        }
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String position = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void publishUnreadCount(Long userId) {
+        pushService.publishUnreadCount(userId, unreadCountService.getUnreadCount(userId));
     }
-}
\ No newline at end of file
+}
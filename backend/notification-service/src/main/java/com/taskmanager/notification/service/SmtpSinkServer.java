@@ -0,0 +1,144 @@
+package com.taskmanager.notification.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process SMTP server that accepts and discards mail, for local runs and measuring delivery throughput without a relay
+@Component
+@ConditionalOnProperty(name = "app.email.sink.enabled", havingValue = "true")
+public class SmtpSinkServer {
+
+    @Value("${app.email.sink.port:2525}")
+    private int port;
+
+    private final Counter receivedCounter;
+    private final AtomicLong received = new AtomicLong();
+    private final ExecutorService connectionExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "smtp-sink");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ServerSocket serverSocket;
+    private long lastReportedCount;
+    private long lastReportedAt = System.nanoTime();
+
+    public SmtpSinkServer(MeterRegistry meterRegistry) {
+        this.receivedCounter = meterRegistry.counter("notifications.email.sink.received");
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(port, 256, InetAddress.getLoopbackAddress());
+        connectionExecutor.execute(this::acceptLoop);
+        System.out.println("SMTP sink listening on localhost:" + port);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        serverSocket.close();
+        connectionExecutor.shutdownNow();
+    }
+
+    public long getReceivedCount() {
+        return received.get();
+    }
+
+    @Scheduled(fixedRate = 10000)
+    public void reportThroughput() {
+        long now = System.nanoTime();
+        long count = received.get();
+        long delta = count - lastReportedCount;
+
+        if (delta > 0) {
+            double perSecond = delta / ((now - lastReportedAt) / 1_000_000_000.0);
+            System.out.printf("SMTP sink received %d messages (%.1f msg/s)%n", count, perSecond);
+        }
+
+        lastReportedCount = count;
+        lastReportedAt = now;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionExecutor.execute(() -> handle(socket));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("SMTP sink accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+
+            reply(out, "220 localhost SMTP sink ready");
+
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line.toUpperCase(Locale.ROOT);
+
+                switch (command) {
+                    case "EHLO":
+                        out.write("250-localhost\r\n");
+                        reply(out, "250 PIPELINING");
+                        break;
+                    case "HELO":
+                    case "MAIL":
+                    case "RCPT":
+                    case "RSET":
+                    case "NOOP":
+                        reply(out, "250 OK");
+                        break;
+                    case "DATA":
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // Message content is discarded
+                        }
+                        received.incrementAndGet();
+                        receivedCounter.increment();
+                        reply(out, "250 OK queued");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // Client disconnected
+        }
+    }
+
+    private void reply(BufferedWriter out, String response) throws IOException {
+        out.write(response);
+        out.write("\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,147 @@
+package com.taskmanager.notification.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Keeps SMTP sessions open across messages so each email costs one MAIL/RCPT/DATA exchange instead of a full handshake
+@Component
+public class SmtpTransportPool {
+
+    private static final long IDLE_PROBE_AFTER_MS = 5000;
+
+    private final Session session;
+    private final String host;
+    private final int port;
+    private final String username;
+    private final String password;
+    private final int maxMessagesPerConnection;
+    private final long acquireTimeoutMs;
+
+    private final Semaphore permits;
+    private final BlockingQueue<PooledTransport> idle;
+
+    public SmtpTransportPool(@Value("${app.email.smtp.host:localhost}") String host,
+                             @Value("${app.email.smtp.port:25}") int port,
+                             @Value("${app.email.smtp.username:}") String username,
+                             @Value("${app.email.smtp.password:}") String password,
+                             @Value("${app.email.smtp.starttls:false}") boolean startTls,
+                             @Value("${app.email.smtp.pool-size:4}") int poolSize,
+                             @Value("${app.email.smtp.max-messages-per-connection:500}") int maxMessagesPerConnection,
+                             @Value("${app.email.smtp.connect-timeout-ms:5000}") int connectTimeoutMs,
+                             @Value("${app.email.smtp.timeout-ms:10000}") int timeoutMs,
+                             @Value("${app.email.smtp.acquire-timeout-ms:30000}") long acquireTimeoutMs) {
+        this.host = host;
+        this.port = port;
+        this.username = username;
+        this.password = password;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = new Semaphore(poolSize);
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+
+        Properties properties = new Properties();
+        properties.put("mail.transport.protocol", "smtp");
+        properties.put("mail.smtp.host", host);
+        properties.put("mail.smtp.port", String.valueOf(port));
+        properties.put("mail.smtp.auth", String.valueOf(!username.isEmpty()));
+        properties.put("mail.smtp.starttls.enable", String.valueOf(startTls));
+        properties.put("mail.smtp.connectiontimeout", String.valueOf(connectTimeoutMs));
+        properties.put("mail.smtp.timeout", String.valueOf(timeoutMs));
+        properties.put("mail.smtp.writetimeout", String.valueOf(timeoutMs));
+        this.session = Session.getInstance(properties);
+    }
+
+    public MimeMessage createMessage() {
+        return new MimeMessage(session);
+    }
+
+    public void send(MimeMessage message) throws MessagingException {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MessagingException("Timed out waiting for an SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted waiting for an SMTP connection", e);
+        }
+
+        PooledTransport pooled = null;
+        boolean released = false;
+        try {
+            pooled = borrow();
+            message.saveChanges();
+            pooled.transport.sendMessage(message, message.getAllRecipients());
+            pooled.messagesSent++;
+            pooled.lastUsedAt = System.currentTimeMillis();
+            release(pooled);
+            released = true;
+        } finally {
+            // Any failure, checked or not, can leave the session mid-command, so it is closed instead of reused
+            if (pooled != null && !released) {
+                close(pooled);
+            }
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport pooled;
+        while ((pooled = idle.poll()) != null) {
+            close(pooled);
+        }
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport pooled = idle.poll();
+        // isConnected() costs a NOOP round trip, so only probe sessions that sat idle long enough to be dropped
+        if (pooled != null && (System.currentTimeMillis() - pooled.lastUsedAt < IDLE_PROBE_AFTER_MS
+                || pooled.transport.isConnected())) {
+            return pooled;
+        }
+        if (pooled != null) {
+            close(pooled);
+        }
+
+        Transport transport = session.getTransport("smtp");
+        transport.connect(host, port, username.isEmpty() ? null : username, password.isEmpty() ? null : password);
+        return new PooledTransport(transport);
+    }
+
+    private void release(PooledTransport pooled) {
+        // Recycling periodically keeps long-lived sessions from hitting server-side per-connection limits
+        if (pooled.messagesSent >= maxMessagesPerConnection || !idle.offer(pooled)) {
+            close(pooled);
+        }
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            // Connection already gone
+        }
+    }
+
+    private static class PooledTransport {
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedAt;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+            this.lastUsedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.taskmanager.notification.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+// Remembers which (event, recipient) pairs already produced a notification, so retried and replayed task
+// events do not notify anyone twice
+@Service
+public class TaskEventDeduplicator {
+
+    private static final String PROCESSED_PREFIX = "notification_event:";
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${app.notifications.consumer.dedupe-ttl-hours:168}")
+    private long ttlHours;
+
+    // Events without an id cannot be deduplicated and are never reported as processed
+    public boolean isProcessed(String eventId, Long userId) {
+        if (eventId == null) {
+            return false;
+        }
+
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(key(eventId, userId)));
+        } catch (Exception e) {
+            // Without Redis a duplicate is preferable to a lost notification
+            System.err.println("Failed to check task event " + eventId + " for duplicates: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Called only once the notification row is saved: a crash in between redelivers the event and may notify
+    // twice, but never loses the notification
+    public void markProcessed(String eventId, Long userId) {
+        if (eventId == null) {
+            return;
+        }
+
+        try {
+            redisTemplate.opsForValue().set(key(eventId, userId), "1", Duration.ofHours(ttlHours));
+        } catch (Exception e) {
+            System.err.println("Failed to mark task event " + eventId + " as processed: " + e.getMessage());
+        }
+    }
+
+    private String key(String eventId, Long userId) {
+        return PROCESSED_PREFIX + eventId + ":" + userId;
+    }
+}
@@ -0,0 +1,149 @@
+package com.taskmanager.notification.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Measures the consumer group's lag from the broker's side, so it also covers partitions assigned to other instances
+@Service
+public class TaskEventLagMonitor implements HealthIndicator {
+
+    private static final String TOPIC = "task-events";
+    private static final String GROUP_ID = "notification-service-group";
+
+    private final MeterRegistry meterRegistry;
+    private final AdminClient adminClient;
+    private final long intervalMs;
+    private final long threshold;
+    private final long timeoutMs;
+
+    private final Map<Integer, AtomicLong> lagByPartition = new ConcurrentHashMap<>();
+    private final AtomicLong totalLag = new AtomicLong();
+    private volatile long lastUpdatedAt;
+
+    public TaskEventLagMonitor(MeterRegistry meterRegistry,
+                               KafkaAdmin kafkaAdmin,
+                               @Value("${app.notifications.consumer.lag-interval-ms:15000}") long intervalMs,
+                               @Value("${app.notifications.consumer.lag-threshold:10000}") long threshold,
+                               @Value("${app.notifications.consumer.lag-timeout-ms:5000}") long timeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        this.intervalMs = intervalMs;
+        this.threshold = threshold;
+        this.timeoutMs = timeoutMs;
+
+        Gauge.builder("notifications.task_events.lag.total", totalLag, AtomicLong::get)
+                .baseUnit("records")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.consumer.lag-interval-ms:15000}")
+    public void refresh() {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(GROUP_ID)
+                    .partitionsToOffsetAndMetadata()
+                    .get(timeoutMs, TimeUnit.MILLISECONDS);
+            TopicDescription topic = adminClient.describeTopics(Collections.singletonList(TOPIC))
+                    .allTopicNames()
+                    .get(timeoutMs, TimeUnit.MILLISECONDS)
+                    .get(TOPIC);
+
+            Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+            Map<TopicPartition, OffsetSpec> earliest = new HashMap<>();
+            topic.partitions().forEach(info -> {
+                TopicPartition partition = new TopicPartition(TOPIC, info.partition());
+                latest.put(partition, OffsetSpec.latest());
+                // Without a committed offset the group starts from the earliest retained record
+                if (committed.get(partition) == null) {
+                    earliest.put(partition, OffsetSpec.earliest());
+                }
+            });
+
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = adminClient.listOffsets(latest)
+                    .all().get(timeoutMs, TimeUnit.MILLISECONDS);
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> startOffsets = earliest.isEmpty()
+                    ? Collections.emptyMap()
+                    : adminClient.listOffsets(earliest).all().get(timeoutMs, TimeUnit.MILLISECONDS);
+
+            long total = 0;
+            for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : endOffsets.entrySet()) {
+                TopicPartition partition = entry.getKey();
+                OffsetAndMetadata position = committed.get(partition);
+                long consumed = position != null ? position.offset() : startOffsets.get(partition).offset();
+                long lag = Math.max(0, entry.getValue().offset() - consumed);
+
+                partitionGauge(partition.partition()).set(lag);
+                total += lag;
+            }
+
+            totalLag.set(total);
+            lastUpdatedAt = System.currentTimeMillis();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Failed to measure task-events consumer lag: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Health health() {
+        if (lastUpdatedAt == 0) {
+            return Health.unknown().withDetail("reason", "Lag not measured yet").build();
+        }
+
+        long age = System.currentTimeMillis() - lastUpdatedAt;
+        Map<Integer, Long> partitions = new TreeMap<>();
+        lagByPartition.forEach((partition, lag) -> partitions.put(partition, lag.get()));
+
+        // Lag is reported, not enforced: a DOWN here would fail the health check and restart instances that are
+        // busy catching up. Alert on the notifications.task_events.lag.total gauge instead.
+        Health.Builder builder = age > intervalMs * 3
+                ? Health.unknown().withDetail("reason", "Lag measurement is stale")
+                : Health.up();
+
+        return builder
+                .withDetail("topic", TOPIC)
+                .withDetail("totalLag", totalLag.get())
+                .withDetail("threshold", threshold)
+                .withDetail("lagging", totalLag.get() > threshold)
+                .withDetail("partitions", partitions)
+                .withDetail("measuredMsAgo", age)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        adminClient.close();
+    }
+
+    private AtomicLong partitionGauge(int partition) {
+        return lagByPartition.computeIfAbsent(partition, key -> {
+            AtomicLong lag = new AtomicLong();
+            Gauge.builder("notifications.task_events.lag", lag, AtomicLong::get)
+                    .tag("partition", String.valueOf(key))
+                    .baseUnit("records")
+                    .register(meterRegistry);
+            return lag;
+        });
+    }
+}
@@ -0,0 +1,104 @@
+package com.taskmanager.notification.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Moves dead-lettered task events back onto the main topic in bulk once the cause of the failures is fixed
+@Service
+public class TaskEventReplayService {
+
+    private static final String DLT_TOPIC = "task-events-dlt";
+    private static final String TARGET_TOPIC = "task-events";
+    private static final String REPLAY_GROUP_ID = "notification-service-dlt-replay";
+
+    private final KafkaTemplate<Object, Object> kafkaTemplate;
+    private final DefaultKafkaConsumerFactory<String, byte[]> consumerFactory;
+    private final Duration pollTimeout;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Counter replayedCounter;
+
+    public TaskEventReplayService(@Qualifier("taskEventRetryTemplate") KafkaTemplate<Object, Object> kafkaTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                                  @Value("${app.notifications.consumer.replay.max-poll-records:500}") int maxPollRecords,
+                                  @Value("${app.notifications.consumer.replay.poll-timeout-ms:2000}") long pollTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.pollTimeout = Duration.ofMillis(pollTimeoutMs);
+        this.replayedCounter = meterRegistry.counter("notifications.task_events.replayed");
+
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, REPLAY_GROUP_ID);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // Payloads are forwarded byte for byte, so records that never deserialized are replayed unchanged too
+        this.consumerFactory = new DefaultKafkaConsumerFactory<>(configProps,
+                new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    public int replay(int maxRecords) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("A dead-letter replay is already running");
+        }
+
+        int replayed = 0;
+        try (Consumer<String, byte[]> consumer = consumerFactory.createConsumer()) {
+            consumer.subscribe(Collections.singletonList(DLT_TOPIC));
+
+            while (replayed < maxRecords) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(pollTimeout);
+                if (records.isEmpty()) {
+                    break;
+                }
+
+                // A poll can return more than is left of maxRecords; the rest stay uncommitted for the next replay
+                List<CompletableFuture<?>> sends = new ArrayList<>(records.count());
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (replayed + sends.size() >= maxRecords) {
+                        break;
+                    }
+                    sends.add(kafkaTemplate.send(new ProducerRecord<>(TARGET_TOPIC, record.key(), record.value())));
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+
+                // Offsets are only committed once every replayed record is acknowledged by the broker, so a
+                // failed replay repeats records rather than losing them
+                CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+                consumer.commitSync(offsets);
+                replayed += sends.size();
+                replayedCounter.increment(sends.size());
+            }
+        } finally {
+            running.set(false);
+        }
+
+        System.out.println("Replayed " + replayed + " dead-lettered task events to " + TARGET_TOPIC);
+        return replayed;
+    }
+}
@@ -0,0 +1,159 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.notification.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Redis holds the only copy of each counter, so every instance reads and adjusts the same value
+@Service
+public class UnreadCountService {
+
+    private static final String UNREAD_COUNT_PREFIX = "notification_unread:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ADJUST_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/unread-count-adjust.lua"), List.class);
+    private static final RedisScript<Long> RECONCILE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/unread-count-reconcile.lua"), Long.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Value("${app.notifications.unread-count.redis-enabled:true}")
+    private boolean redisEnabled;
+
+    @Value("${app.notifications.unread-count.idle-ttl-ms:604800000}")
+    private long idleTtlMs;
+
+    @Value("${app.notifications.unread-count.max-tracked-users:100000}")
+    private int maxTrackedUsers;
+
+    // Users adjusted since their last successful recount, with the time of the latest adjustment
+    private final Map<Long, Long> pendingReconcile = new ConcurrentHashMap<>();
+
+    public long getUnreadCount(Long userId) {
+        if (redisEnabled) {
+            try {
+                List<Long> counter = execute(userId, 0);
+                if (!counter.isEmpty()) {
+                    return Math.max(0, counter.get(0));
+                }
+            } catch (Exception e) {
+                System.err.println("Failed to read unread count from Redis for user " + userId + ": " + e.getMessage());
+                return countUnread(userId);
+            }
+        }
+
+        long count = countUnread(userId);
+        if (redisEnabled) {
+            swap(userId, "", count);
+        }
+        return count;
+    }
+
+    public void increment(Long userId) {
+        adjust(userId, 1);
+    }
+
+    public void decrement(Long userId) {
+        adjust(userId, -1);
+    }
+
+    public void decrement(Long userId, int count) {
+        if (count > 0) {
+            adjust(userId, -count);
+        }
+    }
+
+    // Adjustments are applied after the row commits, so one that lands after a recount which already saw its row
+    // counts that row twice. The adjustment puts the user back on the list, and the next round corrects it.
+    @Scheduled(fixedDelayString = "${app.notifications.unread-count.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        for (Map.Entry<Long, Long> entry : new ArrayList<>(pendingReconcile.entrySet())) {
+            if (reconcile(entry.getKey())) {
+                pendingReconcile.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // Recounts from MySQL and swaps the result in only if the counter's version is unchanged, i.e. no
+    // adjustment landed during the count; returns false when the recount was dropped or failed
+    public boolean reconcile(Long userId) {
+        if (!redisEnabled) {
+            return true;
+        }
+
+        try {
+            List<Long> before = execute(userId, 0);
+            long count = countUnread(userId);
+            return swap(userId, before.isEmpty() ? "" : String.valueOf(before.get(1)), count);
+        } catch (Exception e) {
+            System.err.println("Failed to reconcile unread count for user " + userId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void adjust(Long userId, long delta) {
+        if (!redisEnabled) {
+            return;
+        }
+
+        try {
+            execute(userId, delta);
+        } catch (Exception e) {
+            System.err.println("Failed to update unread count in Redis for user " + userId + ": " + e.getMessage());
+        }
+        pendingReconcile.put(userId, System.currentTimeMillis());
+        evictIfFull();
+    }
+
+    private long countUnread(Long userId) {
+        return notificationRepository.countByUserIdAndIsRead(userId, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> execute(Long userId, long delta) {
+        return redisTemplate.execute(ADJUST_SCRIPT, List.of(UNREAD_COUNT_PREFIX + userId),
+                String.valueOf(delta), String.valueOf(idleTtlMs));
+    }
+
+    private boolean swap(Long userId, String version, long count) {
+        try {
+            Long swapped = redisTemplate.execute(RECONCILE_SCRIPT, List.of(UNREAD_COUNT_PREFIX + userId),
+                    version, String.valueOf(count), String.valueOf(idleTtlMs));
+            return Long.valueOf(1).equals(swapped);
+        } catch (Exception e) {
+            System.err.println("Failed to write unread count to Redis for user " + userId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void evictIfFull() {
+        if (pendingReconcile.size() <= maxTrackedUsers) {
+            return;
+        }
+
+        // Forgetting the least recently adjusted users only skips their recount; their counters stay as they are
+        int toEvict = pendingReconcile.size() - maxTrackedUsers + maxTrackedUsers / 10;
+        pendingReconcile.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                .limit(toEvict)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(pendingReconcile::remove);
+    }
+}
@@ -0,0 +1,169 @@
+package com.taskmanager.notification.service;
+
+import com.taskmanager.notification.client.UserDirectoryClient;
+import com.taskmanager.notification.dto.UserInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class UserEmailCache {
+
+    @Autowired
+    private UserDirectoryClient userDirectoryClient;
+
+    @Value("${app.user-directory.cache.max-size:100000}")
+    private int maxSize;
+
+    @Value("${app.user-directory.cache.ttl-ms:3600000}")
+    private long ttlMs;
+
+    @Value("${app.user-directory.cache.refresh-after-ms:2700000}")
+    private long refreshAfterMs;
+
+    @Value("${app.user-directory.max-ids-per-request:200}")
+    private int maxIdsPerRequest;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Long> pendingRefresh = ConcurrentHashMap.newKeySet();
+    // Orders loads and invalidations, so a load that started before an invalidation cannot write its result back
+    private final AtomicLong versions = new AtomicLong();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public UserEmailCache(MeterRegistry meterRegistry) {
+        this.hitCounter = meterRegistry.counter("notifications.user_directory.cache", "result", "hit");
+        this.missCounter = meterRegistry.counter("notifications.user_directory.cache", "result", "miss");
+        meterRegistry.gaugeMapSize("notifications.user_directory.cache.size", Collections.emptyList(), entries);
+    }
+
+    public String getEmail(Long userId) {
+        return getEmails(Collections.singletonList(userId)).get(userId);
+    }
+
+    // Resolves every id with at most one user-service round trip per max-ids-per-request ids
+    public Map<Long, String> getEmails(Collection<Long> userIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, String> emails = new HashMap<>();
+        Set<Long> misses = new LinkedHashSet<>();
+
+        for (Long userId : userIds) {
+            Entry entry = entries.get(userId);
+            if (entry == null || entry.invalidated || now - entry.loadedAt >= ttlMs) {
+                misses.add(userId);
+                continue;
+            }
+
+            // Refresh-ahead: serve the cached value now and reload it in the background before it expires
+            if (now - entry.loadedAt >= refreshAfterMs) {
+                pendingRefresh.add(userId);
+            }
+            hitCounter.increment();
+            if (entry.email != null) {
+                emails.put(userId, entry.email);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            missCounter.increment(misses.size());
+            emails.putAll(load(new ArrayList<>(misses)));
+        }
+
+        return emails;
+    }
+
+    // Leaves a marker rather than removing the entry, so loads already in flight for this user are discarded
+    public void invalidate(Long userId) {
+        entries.put(userId, new Entry(null, System.currentTimeMillis(), versions.incrementAndGet(), true));
+        pendingRefresh.remove(userId);
+        evictIfFull();
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-directory.cache.refresh-interval-ms:1000}")
+    public void refreshPending() {
+        if (pendingRefresh.isEmpty()) {
+            return;
+        }
+
+        List<Long> userIds = new ArrayList<>(pendingRefresh);
+        pendingRefresh.removeAll(userIds);
+
+        try {
+            load(userIds);
+        } catch (Exception e) {
+            // Entries stay valid until their TTL, so a failed refresh is retried on the next access
+            System.err.println("Failed to refresh user emails: " + e.getMessage());
+        }
+    }
+
+    private Map<Long, String> load(List<Long> userIds) {
+        Map<Long, String> emails = new HashMap<>();
+
+        for (int from = 0; from < userIds.size(); from += maxIdsPerRequest) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + maxIdsPerRequest, userIds.size()));
+            long loadedAt = System.currentTimeMillis();
+            long version = versions.incrementAndGet();
+
+            for (UserInfo user : userDirectoryClient.getUsersByIds(chunk)) {
+                if (user.getEmail() != null) {
+                    emails.put(user.getId(), user.getEmail());
+                }
+            }
+
+            // Unknown users are cached too, so repeated notifications for them do not hit user-service
+            for (Long userId : chunk) {
+                Entry loaded = new Entry(emails.get(userId), loadedAt, version, false);
+                entries.merge(userId, loaded, (current, candidate) ->
+                        current.version > candidate.version ? current : candidate);
+            }
+        }
+
+        evictIfFull();
+        return emails;
+    }
+
+    private void evictIfFull() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+
+        // Evict the oldest tenth in one pass so the scan cost is amortized over many inserts
+        int toEvict = entries.size() - maxSize + maxSize / 10;
+        entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().loadedAt))
+                .limit(toEvict)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(entries::remove);
+    }
+
+    private static class Entry {
+        private final String email;
+        private final long loadedAt;
+        private final long version;
+        private final boolean invalidated;
+
+        private Entry(String email, long loadedAt, long version, boolean invalidated) {
+            this.email = email;
+            this.loadedAt = loadedAt;
+            this.version = version;
+            this.invalidated = invalidated;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+-- Applies a delta to an unread counter, a hash of count and version, if it is seeded; a missing counter is
+-- seeded from MySQL on the next read. Every non-zero delta bumps the version, which makes a recount that
+-- started before it fail to swap in.
+-- KEYS[1] counter key
+-- ARGV[1] delta (0 only reads the counter), ARGV[2] idle time to live in milliseconds
+-- Returns {count, version}, or an empty list when the counter is not seeded.
+if redis.call('TYPE', KEYS[1]).ok ~= 'hash' then
+    return {}
+end
+local count = redis.call('HINCRBY', KEYS[1], 'count', ARGV[1])
+local version
+if tonumber(ARGV[1]) ~= 0 then
+    version = redis.call('HINCRBY', KEYS[1], 'version', 1)
+else
+    version = tonumber(redis.call('HGET', KEYS[1], 'version'))
+end
+redis.call('PEXPIRE', KEYS[1], ARGV[2])
+return {count, version}
@@ -0,0 +1,17 @@
+-- Replaces an unread counter with a recounted value only if no adjustment landed since its version was read.
+-- KEYS[1] counter key
+-- ARGV[1] version read before the recount ('' when the counter was not seeded), ARGV[2] recounted value,
+-- ARGV[3] idle time to live in milliseconds
+-- Returns 1 when the counter was replaced, 0 when it changed in the meantime.
+local current = false
+if redis.call('TYPE', KEYS[1]).ok == 'hash' then
+    current = redis.call('HGET', KEYS[1], 'version')
+end
+if (current == false and ARGV[1] == '') or current == ARGV[1] then
+    -- DEL also clears a value of another type left under the key
+    redis.call('DEL', KEYS[1])
+    redis.call('HSET', KEYS[1], 'count', ARGV[2], 'version', (tonumber(current) or 0) + 1)
+    redis.call('PEXPIRE', KEYS[1], ARGV[3])
+    return 1
+end
+return 0
@@ -1,5 +1,7 @@
 package com.taskmanager.user.config;
 
+import com.taskmanager.user.security.InternalApiTokenFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -8,11 +10,15 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    @Value("${app.internal.api-token:}")
+    private String internalApiToken;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -24,8 +30,11 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/auth/**", "/actuator/**").permitAll()
+                .requestMatchers("/internal/**").hasRole(InternalApiTokenFilter.ROLE)
                 .anyRequest().authenticated()
-            );
+            )
+            // Built here rather than as a bean so Boot does not also register it as a plain servlet filter
+            .addFilterBefore(new InternalApiTokenFilter(internalApiToken), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
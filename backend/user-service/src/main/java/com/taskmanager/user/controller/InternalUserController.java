@@ -0,0 +1,27 @@
+package com.taskmanager.user.controller;
+
+import com.taskmanager.user.dto.UserEmailResponse;
+import com.taskmanager.user.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Service-to-service lookups, authenticated with the shared internal token (see InternalApiTokenFilter)
+@RestController
+@RequestMapping("/internal/users")
+public class InternalUserController {
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping
+    public ResponseEntity<List<UserEmailResponse>> getUserEmailsByIds(@RequestParam List<Long> ids) {
+        List<UserEmailResponse> users = userService.getUserEmailsByIds(ids);
+        return ResponseEntity.ok(users);
+    }
+}
@@ -0,0 +1,32 @@
+package com.taskmanager.user.dto;
+
+// What other services need to reach a user, and nothing else from the profile
+public class UserEmailResponse {
+    private Long id;
+    private String email;
+
+    // Constructors
+    public UserEmailResponse() {}
+
+    public UserEmailResponse(Long id, String email) {
+        this.id = id;
+        this.email = email;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
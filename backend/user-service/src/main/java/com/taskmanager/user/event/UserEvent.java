@@ -0,0 +1,49 @@
+package com.taskmanager.user.event;
+
+import java.time.LocalDateTime;
+
+public class UserEvent {
+    private String eventType;
+    private Long userId;
+    private LocalDateTime eventTimestamp;
+
+    public enum EventType {
+        USER_UPDATED, USER_DEACTIVATED
+    }
+
+    // Constructors
+    public UserEvent() {
+        this.eventTimestamp = LocalDateTime.now();
+    }
+
+    public UserEvent(String eventType, Long userId) {
+        this();
+        this.eventType = eventType;
+        this.userId = userId;
+    }
+
+    // Getters and Setters
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getEventTimestamp() {
+        return eventTimestamp;
+    }
+
+    public void setEventTimestamp(LocalDateTime eventTimestamp) {
+        this.eventTimestamp = eventTimestamp;
+    }
+}
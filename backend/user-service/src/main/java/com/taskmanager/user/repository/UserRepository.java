@@ -1,5 +1,6 @@
 package com.taskmanager.user.repository;
 
+import com.taskmanager.user.dto.UserEmailResponse;
 import com.taskmanager.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -23,6 +24,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByIsActiveTrue();
 
+    @Query("SELECT new com.taskmanager.user.dto.UserEmailResponse(u.id, u.email) FROM User u WHERE u.id IN :ids")
+    List<UserEmailResponse> findEmailsByIdIn(List<Long> ids);
+
     @Query("SELECT u FROM User u WHERE u.isActive = true AND " +
            "(LOWER(u.username) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
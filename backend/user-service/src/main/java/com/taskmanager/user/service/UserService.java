@@ -2,11 +2,13 @@ package com.taskmanager.user.service;
 
 import com.taskmanager.user.dto.*;
 import com.taskmanager.user.entity.User;
+import com.taskmanager.user.event.UserEvent;
 import com.taskmanager.user.exception.UserAlreadyExistsException;
 import com.taskmanager.user.exception.UserNotFoundException;
 import com.taskmanager.user.repository.UserRepository;
 import com.taskmanager.user.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -26,6 +28,11 @@ public class UserService {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private KafkaTemplate<String, UserEvent> kafkaTemplate;
+
+    private static final String USER_EVENTS_TOPIC = "user-events";
+
     public AuthResponse registerUser(UserRegistrationRequest request) {
         // Check if user already exists
         if (userRepository.existsByUsername(request.getUsername())) {
@@ -111,6 +118,7 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(user);
+        publishUserEvent(UserEvent.EventType.USER_UPDATED.toString(), userId);
         return new UserResponse(updatedUser);
     }
 
@@ -120,6 +128,7 @@ public class UserService {
 
         user.setActive(false);
         userRepository.save(user);
+        publishUserEvent(UserEvent.EventType.USER_DEACTIVATED.toString(), userId);
     }
 
     public List<UserResponse> getAllUsers() {
@@ -129,6 +138,10 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    public List<UserEmailResponse> getUserEmailsByIds(List<Long> userIds) {
+        return userRepository.findEmailsByIdIn(userIds);
+    }
+
     public List<UserResponse> searchUsers(String query) {
         return userRepository.searchActiveUsers(query)
                 .stream()
@@ -144,4 +157,13 @@ public class UserService {
         String userId = jwtUtil.getUserIdFromToken(token);
         return getUserById(Long.parseLong(userId));
     }
-}
\ No newline at end of file
+
+    private void publishUserEvent(String eventType, Long userId) {
+        try {
+            kafkaTemplate.send(USER_EVENTS_TOPIC, String.valueOf(userId), new UserEvent(eventType, userId));
+        } catch (Exception e) {
+            // Log error but don't fail the operation
+            System.err.println("Failed to publish user event: " + e.getMessage());
+        }
+    }
+}
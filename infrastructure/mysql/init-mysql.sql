@@ -22,12 +22,12 @@ CREATE TABLE IF NOT EXISTS notifications (
     type ENUM('TASK_CREATED', 'TASK_UPDATED', 'TASK_ASSIGNED', 'TASK_COMPLETED', 'TASK_DUE_SOON') NOT NULL,
     title VARCHAR(255) NOT NULL,
     message TEXT NOT NULL,
-    read_status BOOLEAN DEFAULT FALSE,
+    is_read BOOLEAN DEFAULT FALSE,
     task_id VARCHAR(36),
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    INDEX idx_user_id (user_id),
-    INDEX idx_created_at (created_at),
-    INDEX idx_read_status (read_status)
+    INDEX idx_notifications_user_created (user_id, created_at),
+    INDEX idx_notifications_user_read_created (user_id, is_read, created_at),
+    INDEX idx_notifications_user_type_created (user_id, type, created_at)
 );
 
 -- Insert default admin user (password: admin123 - hashed with BCrypt)
@@ -0,0 +1,33 @@
+-- One-time backfill that flags every notification created before the batch email dispatcher as sent.
+--
+-- Earlier releases never set is_sent/email_sent, so without this the dispatcher would email the whole
+-- history and its claim query would keep walking those rows. Run it right before deploying the dispatcher;
+-- it updates in small batches so each statement holds row locks only briefly, and is safe to re-run.
+USE taskmanager_notifications;
+
+DROP PROCEDURE IF EXISTS mark_notification_history_sent;
+
+DELIMITER //
+CREATE PROCEDURE mark_notification_history_sent(IN batch_size INT)
+BEGIN
+    DECLARE updated INT DEFAULT 1;
+
+    -- Superseded by idx_notifications_unsent, which notification-service creates on startup
+    IF EXISTS (SELECT 1 FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notifications'
+               AND INDEX_NAME = 'idx_notifications_sent_email') THEN
+        ALTER TABLE notifications DROP INDEX idx_notifications_sent_email;
+    END IF;
+
+    WHILE updated > 0 DO
+        UPDATE notifications SET is_sent = true, email_sent = true
+        WHERE is_sent = false OR email_sent = false
+        LIMIT batch_size;
+        SET updated = ROW_COUNT();
+    END WHILE;
+END //
+DELIMITER ;
+
+CALL mark_notification_history_sent(5000);
+
+DROP PROCEDURE mark_notification_history_sent;
@@ -0,0 +1,48 @@
+-- One-time conversion of taskmanager_notifications.notifications to monthly RANGE partitions on created_at.
+--
+-- Rebuilds the table (copy plus metadata lock), so run it in a maintenance window, or feed the two ALTERs
+-- to an online schema change tool, before enabling app.notifications.retention.partitioning-enabled.
+-- Once partitioned, notification-service only adds upcoming months and archives expired ones.
+USE taskmanager_notifications;
+
+DROP PROCEDURE IF EXISTS partition_notifications;
+
+DELIMITER //
+CREATE PROCEDURE partition_notifications(IN months_ahead INT)
+BEGIN
+    DECLARE from_month DATE;
+    DECLARE to_month DATE;
+    DECLARE month_start DATE;
+    DECLARE ddl TEXT DEFAULT 'ALTER TABLE notifications PARTITION BY RANGE COLUMNS(created_at) (';
+
+    IF EXISTS (SELECT 1 FROM information_schema.PARTITIONS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'notifications' AND PARTITION_NAME IS NOT NULL) THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'notifications is already partitioned';
+    END IF;
+
+    -- Range partitioning requires the partition column in every unique key, including the primary key
+    UPDATE notifications SET created_at = NOW(6) WHERE created_at IS NULL;
+    ALTER TABLE notifications MODIFY created_at DATETIME(6) NOT NULL,
+        DROP PRIMARY KEY, ADD PRIMARY KEY (id, created_at);
+
+    SELECT DATE_FORMAT(COALESCE(MIN(created_at), NOW()), '%Y-%m-01') INTO from_month FROM notifications;
+    SET to_month = DATE_ADD(DATE_FORMAT(NOW(), '%Y-%m-01'), INTERVAL months_ahead MONTH);
+
+    SET month_start = from_month;
+    WHILE month_start <= to_month DO
+        SET ddl = CONCAT(ddl, 'PARTITION p', DATE_FORMAT(month_start, '%Y%m'),
+                         ' VALUES LESS THAN (''', DATE_ADD(month_start, INTERVAL 1 MONTH), '''), ');
+        SET month_start = DATE_ADD(month_start, INTERVAL 1 MONTH);
+    END WHILE;
+    SET @ddl = CONCAT(ddl, 'PARTITION p_future VALUES LESS THAN (MAXVALUE))');
+
+    PREPARE statement FROM @ddl;
+    EXECUTE statement;
+    DEALLOCATE PREPARE statement;
+END //
+DELIMITER ;
+
+-- Keep months_ahead in line with app.notifications.retention.months-ahead
+CALL partition_notifications(3);
+
+DROP PROCEDURE partition_notifications;